@@ -1,5 +1,10 @@
 package application;
 
+import edu.northeastern.uniforum.db.Database;
+import edu.northeastern.uniforum.forum.dao.VoteAggregator;
+import edu.northeastern.uniforum.forum.dao.VoteReconciler;
+import edu.northeastern.uniforum.forum.search.SearchIndex;
+import edu.northeastern.uniforum.forum.util.StartupWarmup;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,9 +16,22 @@ public class Main extends Application {
 
     @Override
     public void start(Stage stage) {
+    	primaryStage = stage;
+    	
+    	// Migrations, the search index, BCrypt and the forum views are made ready behind a splash screen
+    	StartupWarmup.run(databaseReady -> {
+    	    if (!databaseReady) {
+    	        System.err.println("Database initialization failed; some features may not work.");
+    	    } else {
+    	        // Keep vote counts in line with the vote ledger in the background
+    	        VoteReconciler.start();
+    	    }
+    	    showLogin();
+    	});
+    }
+
+    private void showLogin() {
         try {
-        	primaryStage = stage;
-        	
             Parent root = FXMLLoader.load(
                 getClass().getResource("/edu/northeastern/uniforum/forum/view/LoginView.fxml")
             );
@@ -36,6 +54,15 @@ public class Main extends Application {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        // Write buffered vote counts and the search index snapshot, then release pooled database connections on exit
+        VoteReconciler.shutdown();
+        VoteAggregator.shutdown();
+        SearchIndex.shutdown();
+        Database.shutdown();
+    }
     
 	public static Stage getPrimaryStage() {
 		return primaryStage;
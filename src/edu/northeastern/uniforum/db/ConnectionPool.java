@@ -0,0 +1,355 @@
+package edu.northeastern.uniforum.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small bounded pool of reusable JDBC connections.
+ * Connections are handed out as leases: the object returned by {@link #borrow()}
+ * is a proxy whose close() gives the underlying handle back to the pool instead
+ * of closing it, so DAOs can keep using try-with-resources unchanged.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final long leaseWarningMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final Map<Connection, Lease> leases = new IdentityHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    private int totalConnections;
+    private boolean closed;
+
+    /**
+     * @param url JDBC URL used to open new physical connections
+     * @param maxSize maximum number of physical connections (idle + leased)
+     * @param maxWaitMillis how long borrow() waits for a free connection before failing
+     * @param idleTimeoutMillis idle connections older than this are closed by the evictor
+     * @param validationIntervalMillis connections idle longer than this are health-checked before reuse
+     * @param leaseWarningMillis leases held longer than this are reported as possible leaks
+     */
+    public ConnectionPool(String url, int maxSize, long maxWaitMillis, long idleTimeoutMillis,
+                          long validationIntervalMillis, long leaseWarningMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.leaseWarningMillis = leaseWarningMillis;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured max-wait if every connection is leased.
+     * Closing the returned connection returns it to the pool.
+     */
+    public Connection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        while (true) {
+            IdleConnection candidate = null;
+            boolean mayOpen = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        mayOpen = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out after " + maxWaitMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                    }
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayOpen) {
+                Connection physical;
+                try {
+                    physical = openPhysical();
+                } catch (SQLException | RuntimeException e) {
+                    discarded();
+                    throw e;
+                }
+                return lease(physical);
+            }
+
+            // Reuse an idle connection, health-checking it if it has been sitting for a while
+            if (isHealthy(candidate)) {
+                return lease(candidate.connection);
+            }
+            closeQuietly(candidate.connection);
+            discarded();
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses further borrows.
+     * Connections still leased are closed as they come back.
+     */
+    public void shutdown() {
+        List<Connection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            for (IdleConnection ic : idle) {
+                toClose.add(ic.connection);
+            }
+            totalConnections -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        toClose.forEach(ConnectionPool::closeQuietly);
+    }
+
+    /**
+     * @return a one-line summary of the pool state, useful for logging
+     */
+    public String stats() {
+        lock.lock();
+        try {
+            return "pool[total=" + totalConnections + ", idle=" + idle.size()
+                    + ", leased=" + leases.size() + ", max=" + maxSize + "]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a new physical connection. Subclasses can override this to apply
+     * per-connection settings.
+     */
+    protected Connection openPhysical() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    private boolean isHealthy(IdleConnection candidate) {
+        try {
+            if (candidate.connection.isClosed()) {
+                return false;
+            }
+            long idleFor = System.currentTimeMillis() - candidate.idleSince;
+            if (idleFor < validationIntervalMillis) {
+                return true;
+            }
+            return candidate.connection.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(Connection physical) {
+        Lease lease = new Lease(physical);
+        lock.lock();
+        try {
+            leases.put(physical, lease);
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                lease);
+    }
+
+    private void release(Lease lease) {
+        Connection physical = lease.physical;
+        boolean reusable;
+        try {
+            reusable = !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                // Never hand a half-finished transaction to the next borrower
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        boolean closeNow = false;
+        lock.lock();
+        try {
+            leases.remove(physical);
+            if (reusable && !closed) {
+                idle.addFirst(new IdleConnection(physical));
+            } else {
+                totalConnections--;
+                closeNow = true;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            closeQuietly(physical);
+        }
+    }
+
+    private void discarded() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle past the timeout (always keeping one warm)
+     * and reports leases that have been held suspiciously long.
+     */
+    private void evictIdle() {
+        List<Connection> toClose = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > 1) {
+                IdleConnection ic = it.next();
+                if (now - ic.idleSince >= idleTimeoutMillis) {
+                    it.remove();
+                    totalConnections--;
+                    toClose.add(ic.connection);
+                }
+            }
+            for (Lease lease : leases.values()) {
+                long heldFor = now - lease.borrowedAt;
+                if (heldFor >= leaseWarningMillis) {
+                    System.err.println("Connection leased by " + lease.owner + " has been held for "
+                            + heldFor + " ms; is it being closed?");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Already broken, nothing more to do
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection connection;
+        final long idleSince = System.currentTimeMillis();
+
+        IdleConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * One borrow of a physical connection. Acts as the invocation handler of the
+     * proxy handed to callers, so close() can be intercepted.
+     */
+    private final class Lease implements InvocationHandler {
+        final Connection physical;
+        final long borrowedAt = System.currentTimeMillis();
+        final String owner = Thread.currentThread().getName();
+        private boolean returned;
+
+        Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    release(this);
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        if (returned) {
+                            return true;
+                        }
+                    }
+                    return physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            synchronized (this) {
+                if (returned) {
+                    throw new SQLException("Connection has already been returned to the pool");
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
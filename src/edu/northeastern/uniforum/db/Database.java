@@ -1,7 +1,6 @@
 package edu.northeastern.uniforum.db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class Database {
@@ -9,17 +8,65 @@ public class Database {
 	private static final String DB_URL =
 		    "jdbc:sqlite:db/uniforum_db.db";
 
-    private static Connection connection;
+    // Pool sizing: SQLite serializes writers, so a handful of connections is plenty
+    private static final int POOL_SIZE = 4;
+    private static final long MAX_WAIT_MILLIS = 5_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long VALIDATION_INTERVAL_MILLIS = 30_000;
+    private static final long LEASE_WARNING_MILLIS = 60_000;
 
+    private static ConnectionPool pool;
+
+    /**
+     * Borrows a connection from the shared pool.
+     * Closing the returned connection (e.g. via try-with-resources) hands it back
+     * to the pool rather than closing the SQLite handle.
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getPool().borrow();
+    }
+
+    /**
+     * Returns the shared pool, creating it (and loading the driver) on first use.
+     */
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
                 Class.forName("org.sqlite.JDBC");
             } catch (ClassNotFoundException e) {
                 throw new SQLException("SQLite JDBC driver not found", e);
             }
-            connection = DriverManager.getConnection(DB_URL);
+            StorageProfile profile = StorageProfile.load();
+            pool = new ConnectionPool(DB_URL, POOL_SIZE, MAX_WAIT_MILLIS,
+                    IDLE_TIMEOUT_MILLIS, VALIDATION_INTERVAL_MILLIS, LEASE_WARNING_MILLIS) {
+                @Override
+                protected Connection openPhysical() throws SQLException {
+                    Connection connection = super.openPhysical();
+                    try {
+                        profile.apply(connection);
+                    } catch (SQLException e) {
+                        connection.close();
+                        throw e;
+                    }
+                    return connection;
+                }
+            };
+
+            // Report what SQLite actually accepted, once per pool
+            try (Connection connection = pool.borrow()) {
+                System.out.println(profile.report(connection));
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Closes all pooled connections. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
-        return connection;
     }
 }
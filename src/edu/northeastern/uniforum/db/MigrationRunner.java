@@ -0,0 +1,352 @@
+package edu.northeastern.uniforum.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned SQL scripts in the migrations folder, in order, and records
+ * each one in the schema_version table together with a checksum of its contents.
+ * When the database is already at the latest version no DDL is executed at all.
+ */
+public class MigrationRunner {
+
+    /**
+     * Migration scripts in the order they must be applied.
+     * New scripts are appended here; applied scripts must never be edited.
+     */
+    private static final String[] SCRIPTS = {
+        "V1__baseline_schema.sql",
+        "V2__post_votes.sql",
+        "V3__hot_path_indexes.sql",
+        "V4__likes_keyset_index.sql",
+        "V5__filtered_feed_indexes.sql",
+        "V6__vote_transitions.sql",
+        "V7__vote_change_log.sql",
+        "V8__threaded_replies.sql",
+        "V9__reply_roots_index.sql",
+        "V10__reply_count_triggers.sql",
+        "V11__full_text_search.sql",
+    };
+
+    /**
+     * Scripts that need an optional SQLite feature, with a query that returns a non-zero
+     * value when the feature is present. Without it the script is skipped, not recorded,
+     * so it is applied once the database is opened by a SQLite build that has the feature.
+     */
+    private static final Map<String, String> REQUIREMENTS = Map.of(
+        "V11__full_text_search.sql", "SELECT sqlite_compileoption_used('ENABLE_FTS5')"
+    );
+
+    private static final String MIGRATIONS_FOLDER = "migrations/";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER\\s+TABLE\\s+(\\w+)\\s+ADD\\s+(?:COLUMN\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String CREATE_SCHEMA_VERSION_SQL =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "    version      INTEGER PRIMARY KEY, " +
+        "    description  TEXT NOT NULL, " +
+        "    checksum     TEXT NOT NULL, " +
+        "    applied_time DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+        "    execution_ms INTEGER" +
+        ")";
+
+    /**
+     * One migration script loaded from the classpath.
+     */
+    static final class Migration {
+        final int version;
+        final String description;
+        final String sql;
+        final String checksum;
+        final String requirement;   // null when the script can always be applied
+
+        Migration(int version, String description, String sql, String requirement) {
+            this.version = version;
+            this.description = description;
+            this.sql = sql;
+            this.checksum = checksum(sql);
+            this.requirement = requirement;
+        }
+    }
+
+    /**
+     * Brings the schema up to date.
+     * @return the number of migrations that were applied (0 when already current);
+     *         scripts skipped for a missing SQLite feature are not counted
+     * @throws SQLException if a script fails or an applied script has been modified
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        Map<Integer, String> applied = appliedVersions(connection);
+
+        // An applied script must never change; otherwise databases silently diverge
+        for (Migration m : migrations) {
+            String recorded = applied.get(m.version);
+            if (recorded != null && !recorded.equals(m.checksum)) {
+                throw new SQLException("Migration V" + m.version + " (" + m.description
+                        + ") was modified after it was applied; add a new migration instead");
+            }
+        }
+
+        List<Migration> pending = new ArrayList<>();
+        for (Migration m : migrations) {
+            if (!applied.containsKey(m.version)) {
+                pending.add(m);
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        for (Migration m : pending) {
+            if (!isSupported(connection, m)) {
+                System.out.println("Skipped migration V" + m.version + " (" + m.description
+                        + "): this SQLite build lacks a feature it needs");
+                continue;
+            }
+            if (count == 0) {
+                try (Statement st = connection.createStatement()) {
+                    st.executeUpdate(CREATE_SCHEMA_VERSION_SQL);
+                }
+            }
+            apply(connection, m);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the highest version known to this build
+     */
+    public static int latestVersion() {
+        Matcher m = SCRIPT_NAME.matcher(SCRIPTS[SCRIPTS.length - 1]);
+        return m.matches() ? Integer.parseInt(m.group(1)) : 0;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        boolean wasAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement st = connection.createStatement()) {
+                for (String sql : splitStatements(migration.sql)) {
+                    if (isRedundantAddColumn(connection, sql)) {
+                        continue;
+                    }
+                    st.execute(sql);
+                }
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                ps.setInt(1, migration.version);
+                ps.setString(2, migration.description);
+                ps.setString(3, migration.checksum);
+                ps.setLong(4, elapsed);
+                ps.executeUpdate();
+            }
+            connection.commit();
+            System.out.println("Applied migration V" + migration.version + " (" + migration.description
+                    + ") in " + elapsed + " ms");
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration V" + migration.version + " (" + migration.description
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(wasAutoCommit);
+        }
+    }
+
+    private static Map<Integer, String> appliedVersions(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement st = connection.createStatement()) {
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'")) {
+                if (!rs.next()) {
+                    return applied;
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+                while (rs.next()) {
+                    applied.put(rs.getInt("version"), rs.getString("checksum"));
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static List<Migration> loadMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String script : SCRIPTS) {
+            Matcher m = SCRIPT_NAME.matcher(script);
+            if (!m.matches()) {
+                throw new SQLException("Migration script name must look like V<n>__<description>.sql: " + script);
+            }
+            int version = Integer.parseInt(m.group(1));
+            if (version <= previous) {
+                throw new SQLException("Migration scripts are out of order at " + script);
+            }
+            previous = version;
+
+            try (InputStream in = MigrationRunner.class.getResourceAsStream(MIGRATIONS_FOLDER + script)) {
+                if (in == null) {
+                    throw new SQLException("Migration script not found on classpath: " + script);
+                }
+                String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                migrations.add(new Migration(version, m.group(2).replace('_', ' '), sql, REQUIREMENTS.get(script)));
+            } catch (IOException e) {
+                throw new SQLException("Could not read migration script " + script, e);
+            }
+        }
+        return migrations;
+    }
+
+    private static boolean isSupported(Connection connection, Migration migration) throws SQLException {
+        if (migration.requirement == null) {
+            return true;
+        }
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery(migration.requirement)) {
+            return rs.next() && rs.getInt(1) != 0;
+        }
+    }
+
+    /**
+     * SQLite has no ADD COLUMN IF NOT EXISTS, so older databases that already
+     * received a column by hand would otherwise fail the baseline.
+     */
+    private static boolean isRedundantAddColumn(Connection connection, String sql) throws SQLException {
+        Matcher m = ADD_COLUMN.matcher(sql);
+        if (!m.lookingAt()) {
+            return false;
+        }
+        String table = m.group(1);
+        String column = m.group(2);
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a script into statements on top-level semicolons, ignoring
+     * "--" comments, quoted text and the bodies of CREATE TRIGGER ... END blocks.
+     * A trigger body ends at the END matching its BEGIN; CASE ... END expressions
+     * inside it are counted so their END does not close the body early.
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuote = false;
+        char quote = 0;
+        boolean sawBegin = false;  // the current statement has opened a BEGIN block
+        int depth = 0;             // BEGIN and CASE blocks open in the current statement
+
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+
+            if (inQuote) {
+                current.append(c);
+                if (c == quote) {
+                    inQuote = false;
+                }
+                continue;
+            }
+            if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                while (i < script.length() && script.charAt(i) != '\n') {
+                    i++;
+                }
+                current.append('\n');
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                inQuote = true;
+                quote = c;
+                current.append(c);
+                continue;
+            }
+            if (isWordChar(c) && (i == 0 || !isWordChar(script.charAt(i - 1)))) {
+                int end = i;
+                while (end < script.length() && isWordChar(script.charAt(end))) {
+                    end++;
+                }
+                String word = script.substring(i, end).toUpperCase(Locale.ROOT);
+                if (word.equals("BEGIN")) {
+                    sawBegin = true;
+                    depth++;
+                } else if (word.equals("CASE")) {
+                    depth++;
+                } else if (word.equals("END") && depth > 0) {
+                    depth--;
+                }
+                current.append(script, i, end);
+                i = end - 1;
+                continue;
+            }
+            if (c == ';') {
+                String sql = current.toString().trim();
+                String upper = sql.toUpperCase(Locale.ROOT);
+                boolean inTrigger = upper.matches("(?s)CREATE\\s+(TEMP\\s+|TEMPORARY\\s+)?TRIGGER\\b.*")
+                        && (!sawBegin || depth > 0);
+                if (inTrigger) {
+                    current.append(c);
+                    continue;
+                }
+                if (!sql.isEmpty()) {
+                    statements.add(sql);
+                }
+                current.setLength(0);
+                sawBegin = false;
+                depth = 0;
+                continue;
+            }
+            current.append(c);
+        }
+
+        String tail = current.toString().trim();
+        if (!tail.isEmpty()) {
+            statements.add(tail);
+        }
+        return statements;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String checksum(String sql) {
+        try {
+            // Normalise line endings so a checkout on Windows does not look like an edit
+            byte[] bytes = sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -7,8 +7,7 @@ import java.sql.SQLException;
 public class SeedData {
 
     public static void main(String[] args) {
-        try {
-            Connection conn = Database.getConnection();
+        try (Connection conn = Database.getConnection()) {
 
             insertUsers(conn);
             insertCommunities(conn);
@@ -19,6 +18,8 @@ public class SeedData {
             System.out.println("Dummy data inserted successfully.");
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            Database.shutdown();
         }
     }
 
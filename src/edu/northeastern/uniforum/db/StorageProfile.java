@@ -0,0 +1,149 @@
+package edu.northeastern.uniforum.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * SQLite tuning settings applied to every new pooled connection.
+ * Defaults come from the bundled storage.properties; a db/storage.properties
+ * file next to the database overrides individual keys for a deployment.
+ */
+public class StorageProfile {
+
+    private static final String BUNDLED_PROFILE = "storage.properties";
+    private static final Path OVERRIDE_PROFILE = Paths.get("db", "storage.properties");
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_LEVELS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final long cacheSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+    private final String source;
+
+    private StorageProfile(Properties props, String source) {
+        this.journalMode = choice(props, "journal_mode", "WAL", JOURNAL_MODES);
+        this.synchronous = choice(props, "synchronous", "NORMAL", SYNCHRONOUS_LEVELS);
+        this.mmapSize = number(props, "mmap_size", 268_435_456L);
+        this.cacheSize = number(props, "cache_size", -16_000L);
+        this.tempStore = choice(props, "temp_store", "MEMORY", TEMP_STORES);
+        this.busyTimeoutMillis = (int) number(props, "busy_timeout", 5_000L);
+        this.source = source;
+    }
+
+    /**
+     * Loads the bundled profile and applies any overrides from db/storage.properties.
+     */
+    public static StorageProfile load() {
+        Properties props = new Properties();
+        String source = "built-in defaults";
+
+        try (InputStream in = StorageProfile.class.getResourceAsStream(BUNDLED_PROFILE)) {
+            if (in != null) {
+                props.load(in);
+                source = BUNDLED_PROFILE;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read bundled storage profile: " + e.getMessage());
+        }
+
+        if (Files.isRegularFile(OVERRIDE_PROFILE)) {
+            try (InputStream in = Files.newInputStream(OVERRIDE_PROFILE)) {
+                props.load(in);
+                source = OVERRIDE_PROFILE.toString();
+            } catch (IOException e) {
+                System.err.println("Could not read " + OVERRIDE_PROFILE + ": " + e.getMessage());
+            }
+        }
+
+        return new StorageProfile(props, source);
+    }
+
+    /**
+     * Applies the profile to a freshly opened connection.
+     * PRAGMAs cannot take bind parameters, so every value has been validated on load.
+     */
+    public void apply(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            // busy_timeout first so the journal switch itself waits on a locked file
+            st.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            st.execute("PRAGMA journal_mode = " + journalMode);
+            st.execute("PRAGMA synchronous = " + synchronous);
+            st.execute("PRAGMA mmap_size = " + mmapSize);
+            st.execute("PRAGMA cache_size = " + cacheSize);
+            st.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Reads the settings back from SQLite, which may differ from what was requested
+     * (e.g. WAL is unavailable for in-memory databases, mmap may be capped by the build).
+     */
+    public String report(Connection connection) throws SQLException {
+        StringBuilder sb = new StringBuilder("SQLite storage profile (").append(source).append("):");
+        try (Statement st = connection.createStatement()) {
+            for (String pragma : new String[] { "journal_mode", "synchronous", "mmap_size",
+                                                "cache_size", "temp_store", "busy_timeout" }) {
+                try (ResultSet rs = st.executeQuery("PRAGMA " + pragma)) {
+                    String value = rs.next() ? rs.getString(1) : "?";
+                    sb.append(' ').append(pragma).append('=').append(describe(pragma, value));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    // synchronous and temp_store read back as numbers; show the names used in the properties file
+    private static String describe(String pragma, String value) {
+        String[] names = switch (pragma) {
+            case "synchronous" -> new String[] { "OFF", "NORMAL", "FULL", "EXTRA" };
+            case "temp_store" -> new String[] { "DEFAULT", "FILE", "MEMORY" };
+            default -> null;
+        };
+        try {
+            int index = Integer.parseInt(value);
+            if (names != null && index >= 0 && index < names.length) {
+                return names[index];
+            }
+        } catch (NumberFormatException e) {
+            // Already a name
+        }
+        return value;
+    }
+
+    private static String choice(Properties props, String key, String fallback, Set<String> allowed) {
+        String value = props.getProperty(key, fallback).trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(value)) {
+            System.err.println("Ignoring invalid " + key + "=" + value + "; using " + fallback);
+            return fallback;
+        }
+        return value;
+    }
+
+    private static long number(Properties props, String key, long fallback) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + key + "=" + value + "; using " + fallback);
+            return fallback;
+        }
+    }
+}
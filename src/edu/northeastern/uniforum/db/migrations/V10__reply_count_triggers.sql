@@ -0,0 +1,17 @@
+-- Posts.number_of_replies is kept up to date by +1/-1 triggers that run inside the
+-- statement that inserts or deletes the reply, instead of a COUNT(*) after every comment.
+CREATE TRIGGER IF NOT EXISTS trg_replies_count_insert AFTER INSERT ON Replies
+BEGIN
+    UPDATE Posts SET number_of_replies = number_of_replies + 1 WHERE post_id = NEW.post_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_replies_count_delete AFTER DELETE ON Replies
+BEGIN
+    UPDATE Posts SET number_of_replies = number_of_replies - 1 WHERE post_id = OLD.post_id;
+END;
+
+-- Repair counts written before the triggers existed (seed data, or rows inserted
+-- without the old recount). Each count is a range of idx_replies_post_path.
+UPDATE Posts
+SET number_of_replies = (SELECT COUNT(*) FROM Replies r WHERE r.post_id = Posts.post_id)
+WHERE number_of_replies IS NOT (SELECT COUNT(*) FROM Replies r WHERE r.post_id = Posts.post_id);
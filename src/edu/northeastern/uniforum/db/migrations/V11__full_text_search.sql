@@ -0,0 +1,55 @@
+-- Full-text indexes over post titles, content and tags, and over reply content.
+-- Both are external-content FTS5 tables: they hold only the inverted index and read
+-- the text itself from Posts and Replies, which the triggers below keep them in sync with.
+-- prefix='2 3' adds prefix indexes so "alg*" style terms do not walk the whole vocabulary.
+CREATE VIRTUAL TABLE IF NOT EXISTS Posts_FTS USING fts5(
+    title, content, tag,
+    content='Posts', content_rowid='post_id',
+    tokenize='unicode61 remove_diacritics 2', prefix='2 3'
+);
+
+CREATE VIRTUAL TABLE IF NOT EXISTS Replies_FTS USING fts5(
+    content,
+    content='Replies', content_rowid='reply_id',
+    tokenize='unicode61 remove_diacritics 2', prefix='2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS trg_posts_fts_insert AFTER INSERT ON Posts
+BEGIN
+    INSERT INTO Posts_FTS (rowid, title, content, tag) VALUES (NEW.post_id, NEW.title, NEW.content, NEW.tag);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_posts_fts_delete AFTER DELETE ON Posts
+BEGIN
+    INSERT INTO Posts_FTS (Posts_FTS, rowid, title, content, tag) VALUES ('delete', OLD.post_id, OLD.title, OLD.content, OLD.tag);
+END;
+
+-- Only text changes touch the index; vote and reply counter updates do not fire this
+CREATE TRIGGER IF NOT EXISTS trg_posts_fts_update AFTER UPDATE OF title, content, tag ON Posts
+BEGIN
+    INSERT INTO Posts_FTS (Posts_FTS, rowid, title, content, tag) VALUES ('delete', OLD.post_id, OLD.title, OLD.content, OLD.tag);
+    INSERT INTO Posts_FTS (rowid, title, content, tag) VALUES (NEW.post_id, NEW.title, NEW.content, NEW.tag);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_replies_fts_insert AFTER INSERT ON Replies
+BEGIN
+    INSERT INTO Replies_FTS (rowid, content) VALUES (NEW.reply_id, NEW.content);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_replies_fts_delete AFTER DELETE ON Replies
+BEGIN
+    INSERT INTO Replies_FTS (Replies_FTS, rowid, content) VALUES ('delete', OLD.reply_id, OLD.content);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_replies_fts_update AFTER UPDATE OF content ON Replies
+BEGIN
+    INSERT INTO Replies_FTS (Replies_FTS, rowid, content) VALUES ('delete', OLD.reply_id, OLD.content);
+    INSERT INTO Replies_FTS (rowid, content) VALUES (NEW.reply_id, NEW.content);
+END;
+
+-- Index the rows that already exist
+INSERT INTO Posts_FTS (Posts_FTS) VALUES ('rebuild');
+INSERT INTO Replies_FTS (Replies_FTS) VALUES ('rebuild');
+
+-- BM25 with a title match worth ten content matches and a tag match worth five
+INSERT INTO Posts_FTS (Posts_FTS, rank) VALUES ('rank', 'bm25(10.0, 1.0, 5.0)');
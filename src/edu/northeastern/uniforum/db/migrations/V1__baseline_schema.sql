@@ -0,0 +1,65 @@
+-- Baseline schema.
+-- Databases created before versioned migrations already have these tables,
+-- so every statement here must be a no-op against them.
+
+CREATE TABLE IF NOT EXISTS Users (
+    user_id      INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_name    TEXT NOT NULL,
+    role         TEXT DEFAULT 'student',
+    created_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PasswordHash TEXT,
+    Email        TEXT,
+    LinkedInURL  TEXT,
+    GitHubURL    TEXT,
+    Department   TEXT
+);
+
+CREATE TABLE IF NOT EXISTS Communities (
+    community_id   INTEGER PRIMARY KEY AUTOINCREMENT,
+    community_name TEXT NOT NULL,
+    moderator_id   INTEGER,
+    FOREIGN KEY (moderator_id) REFERENCES Users(user_id)
+);
+
+CREATE TABLE IF NOT EXISTS Posts (
+    post_id           INTEGER PRIMARY KEY AUTOINCREMENT,
+    community_id      INTEGER NOT NULL,
+    user_id           INTEGER NOT NULL,
+    title             TEXT NOT NULL,
+    content           TEXT NOT NULL,
+    number_of_likes   INTEGER DEFAULT 0,
+    number_of_replies INTEGER DEFAULT 0,
+    created_time      DATETIME DEFAULT CURRENT_TIMESTAMP,
+    tag               TEXT DEFAULT 'FAQs',
+    FOREIGN KEY (community_id) REFERENCES Communities(community_id),
+    FOREIGN KEY (user_id)      REFERENCES Users(user_id)
+);
+
+CREATE TABLE IF NOT EXISTS Replies (
+    reply_id        INTEGER PRIMARY KEY AUTOINCREMENT,
+    post_id         INTEGER NOT NULL,
+    user_id         INTEGER NOT NULL,
+    content         TEXT NOT NULL,
+    number_of_likes INTEGER DEFAULT 0,
+    created_time    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (post_id) REFERENCES Posts(post_id),
+    FOREIGN KEY (user_id) REFERENCES Users(user_id)
+);
+
+CREATE TABLE IF NOT EXISTS Community_User (
+    community_id INTEGER NOT NULL,
+    user_id      INTEGER NOT NULL,
+    PRIMARY KEY (community_id, user_id),
+    FOREIGN KEY (community_id) REFERENCES Communities(community_id),
+    FOREIGN KEY (user_id)      REFERENCES Users(user_id)
+);
+
+-- Columns that were bolted on to older databases.
+-- The migration runner skips ADD COLUMN when the column already exists.
+ALTER TABLE Users ADD COLUMN PasswordHash TEXT;
+ALTER TABLE Users ADD COLUMN Email TEXT;
+ALTER TABLE Users ADD COLUMN LinkedInURL TEXT;
+ALTER TABLE Users ADD COLUMN GitHubURL TEXT;
+ALTER TABLE Users ADD COLUMN Department TEXT;
+ALTER TABLE Posts ADD COLUMN number_of_likes INTEGER DEFAULT 0;
+ALTER TABLE Posts ADD COLUMN tag TEXT DEFAULT 'FAQs';
@@ -1,5 +1,5 @@
--- SQL Query to create Post_Votes table for tracking individual user votes
--- This table ensures one user can only vote once per post
+-- Post_Votes tracks individual user votes.
+-- The unique constraint ensures one user can only vote once per post.
 
 CREATE TABLE IF NOT EXISTS Post_Votes (
     vote_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -14,7 +14,3 @@ CREATE TABLE IF NOT EXISTS Post_Votes (
 
 -- Create index for faster lookups
 CREATE INDEX IF NOT EXISTS idx_post_votes_post_user ON Post_Votes(post_id, user_id);
-
--- Verify the table was created
--- SELECT name FROM sqlite_master WHERE type='table' AND name='Post_Votes';
-
@@ -0,0 +1,29 @@
+-- Indexes for the queries behind the feed, post detail, login and community lookups.
+-- QueryPlanVerifier checks at startup that these are actually used.
+
+-- Home/All feed: ORDER BY created_time DESC
+CREATE INDEX IF NOT EXISTS idx_posts_created_time ON Posts(created_time);
+
+-- Explore feed: ORDER BY number_of_likes DESC, created_time DESC
+CREATE INDEX IF NOT EXISTS idx_posts_likes_created ON Posts(number_of_likes, created_time);
+
+-- Posts of one community, newest first
+CREATE INDEX IF NOT EXISTS idx_posts_community_created ON Posts(community_id, created_time);
+
+-- Tag filter dropdown (covering for SELECT DISTINCT tag ... ORDER BY tag)
+CREATE INDEX IF NOT EXISTS idx_posts_tag ON Posts(tag);
+
+-- Replies of a post in display order
+CREATE INDEX IF NOT EXISTS idx_replies_post_created ON Replies(post_id, created_time);
+
+-- Login and profile navigation by username
+CREATE INDEX IF NOT EXISTS idx_users_user_name ON Users(user_name);
+
+-- Memberships of a user (the primary key only serves community_id lookups)
+CREATE INDEX IF NOT EXISTS idx_community_user_user ON Community_User(user_id, community_id);
+
+-- Community dropdowns sorted by name (covering)
+CREATE INDEX IF NOT EXISTS idx_communities_name ON Communities(community_name, community_id);
+
+-- Duplicate of the UNIQUE(post_id, user_id) index; dropping it saves a write per vote
+DROP INDEX IF EXISTS idx_post_votes_post_user;
@@ -0,0 +1,6 @@
+-- Explore pages are keyed on (number_of_likes, post_id). An index on number_of_likes
+-- alone already ends in the rowid (post_id), so it serves that ordering directly and
+-- replaces the (number_of_likes, created_time) index, keeping one index write per vote.
+CREATE INDEX IF NOT EXISTS idx_posts_likes ON Posts(number_of_likes);
+
+DROP INDEX IF EXISTS idx_posts_likes_created;
@@ -0,0 +1,13 @@
+-- Explore filters are compiled into the feed query (PostDAO.findPosts). With these,
+-- a single community or tag filter is read from an index already in sort order,
+-- so SQLite stops after LIMIT rows instead of sorting every match.
+
+-- One community, most/least liked (newest/oldest is idx_posts_community_created)
+CREATE INDEX IF NOT EXISTS idx_posts_community_likes ON Posts(community_id, number_of_likes);
+
+-- One tag, newest/oldest and most/least liked
+CREATE INDEX IF NOT EXISTS idx_posts_tag_created ON Posts(tag, created_time);
+CREATE INDEX IF NOT EXISTS idx_posts_tag_likes ON Posts(tag, number_of_likes);
+
+-- idx_posts_tag_created also covers SELECT DISTINCT tag ... ORDER BY tag
+DROP INDEX IF EXISTS idx_posts_tag;
@@ -0,0 +1,5 @@
+-- Votes are recorded with a single UPSERT (PostDAO.castVote). Removing a vote now sets
+-- vote_type to 0 instead of deleting the row, and previous_vote_type keeps the value the
+-- row had before the last change so the statement can RETURN the transition and the
+-- caller can adjust Posts.number_of_likes by (vote_type - previous_vote_type).
+ALTER TABLE Post_Votes ADD COLUMN previous_vote_type INTEGER NOT NULL DEFAULT 0;
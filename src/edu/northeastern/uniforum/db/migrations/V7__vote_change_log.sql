@@ -0,0 +1,33 @@
+-- Change log for VoteReconciler. Every write to Post_Votes appends the post it touched;
+-- the reconciler recounts number_of_likes from the ledger for the posts logged after its
+-- high-water mark, a batch at a time, instead of aggregating the whole table.
+CREATE TABLE IF NOT EXISTS Vote_Changes (
+    change_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    post_id   INTEGER NOT NULL
+);
+
+-- Last change_id each background job has processed
+CREATE TABLE IF NOT EXISTS Reconcile_State (
+    job             TEXT PRIMARY KEY,
+    high_water_mark INTEGER NOT NULL
+);
+
+INSERT OR IGNORE INTO Reconcile_State (job, high_water_mark) VALUES ('post_votes', 0);
+
+CREATE TRIGGER IF NOT EXISTS trg_post_votes_insert AFTER INSERT ON Post_Votes
+BEGIN
+    INSERT INTO Vote_Changes (post_id) VALUES (NEW.post_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_post_votes_update AFTER UPDATE OF vote_type ON Post_Votes
+BEGIN
+    INSERT INTO Vote_Changes (post_id) VALUES (NEW.post_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_post_votes_delete AFTER DELETE ON Post_Votes
+BEGIN
+    INSERT INTO Vote_Changes (post_id) VALUES (OLD.post_id);
+END;
+
+-- Recount every post that already has votes once; earlier clamped downvotes left them out of step
+INSERT INTO Vote_Changes (post_id) SELECT DISTINCT post_id FROM Post_Votes;
@@ -0,0 +1,25 @@
+-- Threaded replies. parent_reply_id is NULL for a top-level reply. path is the
+-- materialized path of zero-padded reply ids from the root down ("0000000003/0000000007"),
+-- so ORDER BY path lists a whole thread depth-first, siblings oldest first, in one query.
+ALTER TABLE Replies ADD COLUMN parent_reply_id INTEGER REFERENCES Replies(reply_id);
+ALTER TABLE Replies ADD COLUMN path TEXT;
+ALTER TABLE Replies ADD COLUMN depth INTEGER NOT NULL DEFAULT 0;
+
+-- Existing replies are all top-level
+UPDATE Replies SET path = printf('%010d', reply_id), depth = 0 WHERE path IS NULL;
+
+-- Fill in path and depth for every new reply from its parent
+CREATE TRIGGER IF NOT EXISTS trg_replies_path AFTER INSERT ON Replies
+WHEN NEW.path IS NULL
+BEGIN
+    UPDATE Replies
+    SET path  = COALESCE((SELECT p.path || '/' FROM Replies p WHERE p.reply_id = NEW.parent_reply_id), '')
+                || printf('%010d', NEW.reply_id),
+        depth = COALESCE((SELECT p.depth + 1 FROM Replies p WHERE p.reply_id = NEW.parent_reply_id), 0)
+    WHERE reply_id = NEW.reply_id;
+END;
+
+-- A post's thread in display order; replaces the (post_id, created_time) index
+CREATE INDEX IF NOT EXISTS idx_replies_post_path ON Replies(post_id, path);
+
+DROP INDEX IF EXISTS idx_replies_post_created;
@@ -0,0 +1,3 @@
+-- Top-level replies of a post in path order. Paging through them on the (post_id, path)
+-- index would step over every answer in between; this partial index holds only the roots.
+CREATE INDEX IF NOT EXISTS idx_replies_post_roots ON Replies(post_id, path) WHERE parent_reply_id IS NULL;
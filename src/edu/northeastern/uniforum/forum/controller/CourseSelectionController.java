@@ -1,8 +1,9 @@
 package edu.northeastern.uniforum.forum.controller;
 
 import edu.northeastern.uniforum.forum.dao.PostDAO;
-import edu.northeastern.uniforum.forum.dao.UserDAO;
 import edu.northeastern.uniforum.forum.model.User;
+import edu.northeastern.uniforum.forum.util.CachedView;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
@@ -24,8 +25,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-public class CourseSelectionController {
+public class CourseSelectionController implements CachedView {
 
     @FXML private ComboBox<String> deptCombo;
     @FXML private ListView<String> courseListView;
@@ -34,7 +36,7 @@ public class CourseSelectionController {
     
     private User currentUser;
     private final PostDAO postDAO = new PostDAO();
-    private final UserDAO userDAO = new UserDAO();
+    private final DataService data = new DataService();
     
     // Map to store course names to community IDs
     private Map<String, Integer> courseToCommunityMap = new HashMap<>();
@@ -46,19 +48,53 @@ public class CourseSelectionController {
     // Flag to prevent infinite loop when programmatically updating selection
     private boolean isUpdatingSelection = false;
 
+    /**
+     * Clears the previous visit's selections; setCurrentUser loads the next user's
+     */
+    @Override
+    public void reset() {
+        currentUser = null;
+        isUpdatingSelection = true;
+        try {
+            allSelectedCourses.clear();
+            selectedCommunityIds = new ArrayList<>();
+            if (deptCombo != null) {
+                deptCombo.setValue(null);
+            }
+            if (courseListView != null) {
+                courseListView.getSelectionModel().clearSelection();
+                courseListView.getItems().clear();
+            }
+        } finally {
+            isUpdatingSelection = false;
+        }
+        updateSelectedCoursesLabel();
+    }
+
     /**
      * Sets the current logged-in user and loads their existing course selections
      */
     public void setCurrentUser(User user) {
         this.currentUser = user;
         if (user != null) {
-            initializeCommunities();
-            // Load existing courses after communities are initialized (so courseToCommunityMap is populated)
-            Platform.runLater(() -> {
-                loadUserExistingCourses();
-            });
+            loadCommunities();
         }
     }
+
+    /**
+     * Initializes the communities in the background, then loads the user's existing courses
+     * (after, so courseToCommunityMap is populated)
+     */
+    private void loadCommunities() {
+        DataService.supply(this::initializeCommunities).whenComplete((mapping, e) -> {
+            if (e != null) {
+                System.err.println("Error initializing communities: " + DataService.cause(e).getMessage());
+                return;
+            }
+            courseToCommunityMap = mapping;
+            loadUserExistingCourses();
+        });
+    }
     
     /**
      * Loads the user's existing course selections from the database
@@ -68,10 +104,13 @@ public class CourseSelectionController {
             return;
         }
         
-        try {
-            // Get user's current community IDs
-            List<Integer> userCommunityIds = userDAO.getUserCommunities(currentUser.getUserId());
-            
+        // Get user's current community IDs
+        data.getUserCommunities(currentUser.getUserId()).whenComplete((userCommunityIds, e) -> {
+            if (e != null) {
+                System.err.println("Error loading user's existing courses: " + DataService.cause(e).getMessage());
+                return;
+            }
+
             // Map community IDs to course names
             allSelectedCourses.clear();
             for (Map.Entry<String, Integer> entry : courseToCommunityMap.entrySet()) {
@@ -86,17 +125,10 @@ public class CourseSelectionController {
             updateSelectedCoursesLabel();
             
             // Refresh the list view if a department is selected
-            if (deptCombo != null && deptCombo.getValue() != null) {
-                Platform.runLater(() -> {
-                    if (courseListView != null) {
-                        courseListView.refresh();
-                    }
-                });
+            if (deptCombo != null && deptCombo.getValue() != null && courseListView != null) {
+                courseListView.refresh();
             }
-        } catch (Exception e) {
-            System.err.println("Error loading user's existing courses: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     @FXML
@@ -154,7 +186,7 @@ public class CourseSelectionController {
         
         // Initialize communities if user is already set
         if (currentUser != null) {
-            initializeCommunities();
+            loadCommunities();
         }
     }
     
@@ -278,30 +310,26 @@ public class CourseSelectionController {
     }
     
     /**
-     * Initializes communities in database if they don't exist
+     * Initializes communities in database if they don't exist. Runs in the background.
+     * @return the course to community ID mapping
      */
-    private void initializeCommunities() {
-        try {
-            // Get all existing communities
-            List<PostDAO.CommunityDTO> existingCommunities = postDAO.getAllCommunities();
-            Map<String, Integer> existingMap = new HashMap<>();
-            for (PostDAO.CommunityDTO comm : existingCommunities) {
-                existingMap.put(comm.name, comm.id);
-            }
-            
-            // Create course to community mapping and ensure communities exist
-            createCourseCommunityMapping(existingMap);
-        } catch (SQLException e) {
-            System.err.println("Error initializing communities: " + e.getMessage());
-            e.printStackTrace();
+    private Map<String, Integer> initializeCommunities() throws SQLException {
+        // Get all existing communities
+        List<PostDAO.CommunityDTO> existingCommunities = postDAO.getAllCommunities();
+        Map<String, Integer> existingMap = new HashMap<>();
+        for (PostDAO.CommunityDTO comm : existingCommunities) {
+            existingMap.put(comm.name, comm.id);
         }
+        
+        // Create course to community mapping and ensure communities exist
+        return createCourseCommunityMapping(existingMap);
     }
     
     /**
      * Creates mapping between course names and community IDs, creating communities if needed
      */
-    private void createCourseCommunityMapping(Map<String, Integer> existingCommunities) {
-        courseToCommunityMap.clear();
+    private Map<String, Integer> createCourseCommunityMapping(Map<String, Integer> existingCommunities) throws SQLException {
+        Map<String, Integer> mapping = new HashMap<>();
         
         // All course names that should exist as communities
         List<String> allCourses = new ArrayList<>();
@@ -331,15 +359,12 @@ public class CourseSelectionController {
         }
         
         // Reload communities to get IDs
-        try {
-            List<PostDAO.CommunityDTO> allCommunities = postDAO.getAllCommunities();
-            for (PostDAO.CommunityDTO comm : allCommunities) {
-                courseToCommunityMap.put(comm.name, comm.id);
-            }
-            System.out.println("Loaded " + courseToCommunityMap.size() + " communities");
-        } catch (SQLException e) {
-            System.err.println("Error loading communities: " + e.getMessage());
+        List<PostDAO.CommunityDTO> allCommunities = postDAO.getAllCommunities();
+        for (PostDAO.CommunityDTO comm : allCommunities) {
+            mapping.put(comm.name, comm.id);
         }
+        System.out.println("Loaded " + mapping.size() + " communities");
+        return mapping;
     }
     
     /**
@@ -348,8 +373,8 @@ public class CourseSelectionController {
     private void createCommunityIfNotExists(String communityName) {
         try {
             String sql = "INSERT OR IGNORE INTO Communities (community_name, moderator_id) VALUES (?, 1)";
-            java.sql.Connection conn = edu.northeastern.uniforum.db.Database.getConnection();
-            try (java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (java.sql.Connection conn = edu.northeastern.uniforum.db.Database.getConnection();
+                 java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setString(1, communityName);
                 ps.executeUpdate();
             }
@@ -399,46 +424,65 @@ public class CourseSelectionController {
             return;
         }
         
-        // Get community IDs for all selected courses
-        selectedCommunityIds.clear();
+        // Get community IDs for all selected courses; courses without a community yet are created below
+        List<Integer> knownIds = new ArrayList<>();
+        List<String> missingCourses = new ArrayList<>();
         for (String courseName : allSelectedCourses) {
             Integer communityId = courseToCommunityMap.get(courseName);
             if (communityId != null) {
-                selectedCommunityIds.add(communityId);
+                knownIds.add(communityId);
             } else {
                 System.err.println("Community not found for course: " + courseName + ". Creating it now...");
-                // Try to create the community if it doesn't exist
-                createCommunityIfNotExists(courseName);
-                // Reload mapping
-                try {
-                    List<PostDAO.CommunityDTO> allCommunities = postDAO.getAllCommunities();
-                    for (PostDAO.CommunityDTO comm : allCommunities) {
-                        courseToCommunityMap.put(comm.name, comm.id);
-                    }
-                    communityId = courseToCommunityMap.get(courseName);
+                missingCourses.add(courseName);
+            }
+        }
+        int userId = currentUser.getUserId();
+        
+        DataService.supply(() -> {
+            List<Integer> ids = new ArrayList<>(knownIds);
+            if (!missingCourses.isEmpty()) {
+                // Try to create the communities, then look up their IDs
+                for (String courseName : missingCourses) {
+                    createCommunityIfNotExists(courseName);
+                }
+                Map<String, Integer> reloaded = new HashMap<>();
+                for (PostDAO.CommunityDTO comm : postDAO.getAllCommunities()) {
+                    reloaded.put(comm.name, comm.id);
+                }
+                for (String courseName : missingCourses) {
+                    Integer communityId = reloaded.get(courseName);
                     if (communityId != null) {
-                        selectedCommunityIds.add(communityId);
+                        ids.add(communityId);
                     }
-                } catch (SQLException e) {
-                    System.err.println("Error reloading communities: " + e.getMessage());
                 }
             }
-        }
-        
-        if (selectedCommunityIds.isEmpty()) {
-            selectedCoursesLabel.setText("Error: Could not find or create communities for selected courses");
-            selectedCoursesLabel.setStyle("-fx-text-fill: #ff585b; -fx-font-size: 12px;");
-            return;
-        }
-        
-        // Update user's communities (adds new ones and removes unselected ones)
-        if (userDAO.updateUserCommunities(currentUser.getUserId(), selectedCommunityIds)) {
-            System.out.println("Successfully updated user to " + selectedCommunityIds.size() + " communities");
-            // Navigate back to forum
-            SceneManager.switchToForum(currentUser);
-        } else {
-            selectedCoursesLabel.setText("Error saving selections. Please try again.");
-            selectedCoursesLabel.setStyle("-fx-text-fill: #ff585b; -fx-font-size: 12px; -fx-background-color: #F5F5F5; -fx-padding: 8; -fx-background-radius: 4;");
-        }
+            return ids;
+        }).thenCompose(ids -> {
+            selectedCommunityIds = ids;
+            if (ids.isEmpty()) {
+                selectedCoursesLabel.setText("Error: Could not find or create communities for selected courses");
+                selectedCoursesLabel.setStyle("-fx-text-fill: #ff585b; -fx-font-size: 12px;");
+                return CompletableFuture.completedFuture(null);
+            }
+            // Update user's communities (adds new ones and removes unselected ones)
+            return data.updateUserCommunities(userId, ids).thenAccept(success -> {
+                if (success) {
+                    System.out.println("Successfully updated user to " + ids.size() + " communities");
+                    // Navigate back to forum
+                    SceneManager.switchToForum(currentUser);
+                } else {
+                    showSaveError();
+                }
+            });
+        }).exceptionally(e -> {
+            System.err.println("Error reloading communities: " + DataService.cause(e).getMessage());
+            showSaveError();
+            return null;
+        });
+    }
+    
+    private void showSaveError() {
+        selectedCoursesLabel.setText("Error saving selections. Please try again.");
+        selectedCoursesLabel.setStyle("-fx-text-fill: #ff585b; -fx-font-size: 12px; -fx-background-color: #F5F5F5; -fx-padding: 8; -fx-background-radius: 4;");
     }
 }
@@ -2,6 +2,7 @@ package edu.northeastern.uniforum.forum.controller;
 
 import edu.northeastern.uniforum.forum.dao.PostDAO;
 import edu.northeastern.uniforum.forum.model.User;
+import edu.northeastern.uniforum.forum.util.DataService;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -15,7 +16,6 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +48,8 @@ public class CreatePostController {
     private ForumController parentController;
     private User currentUser;
 
-    private final PostDAO postDAO = new PostDAO();
+    private final DataService data = new DataService();
+    private boolean posting;   // the post is being saved; further clicks are ignored
     
     private List<String> tags = new ArrayList<>();
 
@@ -100,13 +101,13 @@ public class CreatePostController {
     }
 
     private void loadCommunities() {
-        try {
-            List<PostDAO.CommunityDTO> communities = postDAO.getAllCommunities();
-            communityComboBox.getItems().setAll(communities);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Failed to load communities: " + e.getMessage());
-        }
+        data.getAllCommunities().whenComplete((communities, e) -> {
+            if (e != null) {
+                System.out.println("Failed to load communities: " + DataService.cause(e).getMessage());
+            } else {
+                communityComboBox.getItems().setAll(communities);
+            }
+        });
     }
 
     @FXML
@@ -227,14 +228,23 @@ public class CreatePostController {
         String tag = tags.get(0);
         showValidationMessage(null);
 
-        try {
-            if (currentUser == null) {
-                showValidationMessage("User not logged in. Please log in again.");
+        if (currentUser == null) {
+            showValidationMessage("User not logged in. Please log in again.");
+            return;
+        }
+        if (posting) {
+            return;
+        }
+        posting = true;
+
+        int userId = currentUser.getUserId();
+        data.createPost(selectedCommunity.id, userId, title, body, tag).whenComplete((done, e) -> {
+            posting = false;
+            if (e != null) {
+                System.out.println("Error creating post: " + DataService.cause(e).getMessage());
+                showValidationMessage("Could not create the post. Please try again.");
                 return;
             }
-            
-            int userId = currentUser.getUserId();
-            postDAO.createPost(selectedCommunity.id, userId, title, body, tag);
             System.out.println("Post created successfully.");
             showValidationMessage(null);
 
@@ -245,11 +255,7 @@ public class CreatePostController {
 
             // Close the modal
             onCloseClicked();
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Error creating post: " + e.getMessage());
-        }
+        });
     }
 
     /**
@@ -3,9 +3,8 @@ package edu.northeastern.uniforum.forum.controller;
 import edu.northeastern.uniforum.forum.model.User;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Label;
-import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Circle;
@@ -44,12 +43,13 @@ public class DashboardController {
         try {
             mainContentArea.getChildren().clear();
             
-            // Load forum FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/edu/northeastern/uniforum/forum/view/forum.fxml"));
-            BorderPane forum = (BorderPane) loader.load();
+            // Forum view, parsed once and reused by SceneManager
+            SceneManager.View view = SceneManager.getView(SceneManager.FORUM_VIEW);
+            SceneManager.detach(view);
+            Region forum = (Region) view.root;
             
             // Initialize forum controller with user
-            ForumController controller = loader.getController();
+            ForumController controller = (ForumController) view.controller;
             if (controller != null && currentUser != null) {
                 controller.initData(currentUser);
             }
@@ -1,20 +1,28 @@
 package edu.northeastern.uniforum.forum.controller;
 
-import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import edu.northeastern.uniforum.forum.dao.PostDAO;
-import edu.northeastern.uniforum.forum.dao.UserDAO;
+import edu.northeastern.uniforum.forum.dao.PostQuery;
 import edu.northeastern.uniforum.forum.model.Reply;
 import edu.northeastern.uniforum.forum.model.User;
+import edu.northeastern.uniforum.forum.search.SuggestionTrie;
+import edu.northeastern.uniforum.forum.util.CachedView;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import edu.northeastern.uniforum.forum.util.TimeUtil;
 import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
+import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -22,6 +30,8 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
@@ -38,16 +48,20 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.scene.paint.Color;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.util.Duration;
 
 
-public class ForumController {
+public class ForumController implements CachedView {
 
     @FXML
     private TextField searchField;
 
+    @FXML
+    private Label searchStatusLabel;   // "Searching..." or the result count and query time
+
     @FXML
     private Button askButton;
 
@@ -61,7 +75,10 @@ public class ForumController {
     private Button homeNavButton;
 
     @FXML
-    private VBox postContainer;   // holds all posts (each with its replies)
+    private ListView<PostDAO.PostDTO> postListView;   // the feed; only the visible cards exist as nodes
+
+    @FXML
+    private Label correctionLabel;   // "Showing results for ..." above the feed
 
     @FXML
     private VBox recentPostsContainer;   // holds recent posts in sidebar
@@ -88,17 +105,77 @@ public class ForumController {
     private ComboBox<String> sortByFilter;   // sort by dropdown
 
     private List<PostDAO.PostDTO> cachedPosts = new ArrayList<>();
+    private final Map<Integer, Integer> userVotes = new HashMap<>();   // the user's vote per loaded post
+    private final Label feedPlaceholder = new Label();   // shown by the feed when it is empty
     private PauseTransition searchDebounce;
+    private final ContextMenu suggestionMenu = new ContextMenu();   // completions under the search field
+    private boolean applyingSuggestion;   // true while a picked suggestion fills the search field
+    private CompletableFuture<?> suggestionRequest;   // latest completion lookup; results of any older one are dropped
     private User currentUser;
-    private final PostDAO postDAO = new PostDAO();
+    private final DataService data = new DataService();
+    private final Set<Integer> votesInFlight = new HashSet<>();   // posts with a vote still being saved
     private boolean isExploreView = false;   // track if we're on Explore view
 
+    private static final int FEED_PAGE_SIZE = 25;
+    private FeedPager feedPager;   // fetches further pages of the current feed, null if fully loaded up front
+    private String feedCursor;     // continuation of the current feed, null when there are no more pages
+    private String correctedKeyword;   // spelling-corrected search the feed is showing, null if none
+
+    private CompletableFuture<?> feedRequest;   // latest search or page load; results of any older one are dropped
+    private FeedFetches feedFetches;            // the page fetches behind feedRequest
+    private boolean loadingMorePosts;
+
+    /**
+     * First page of a search, possibly for the spelling-corrected keyword
+     */
+    private static final class SearchResult {
+        DataService.FeedPage page;
+        FeedPager pager;
+        String correctedKeyword;
+    }
+
+    /**
+     * The page fetches behind one feed request. Cancelling a fetch cancels its query,
+     * so a superseded search stops holding a pooled connection.
+     */
+    private static final class FeedFetches {
+        private final List<CompletableFuture<?>> fetches = new ArrayList<>();
+        private boolean cancelled;
+
+        <T> CompletableFuture<T> add(CompletableFuture<T> fetch) {
+            if (cancelled) {
+                fetch.cancel(false);   // started by a step of the request that was already running
+            } else {
+                fetches.add(fetch);
+            }
+            return fetch;
+        }
+
+        void cancel() {
+            cancelled = true;
+            for (CompletableFuture<?> fetch : fetches) {
+                fetch.cancel(false);
+            }
+            fetches.clear();
+        }
+    }
+
+    /**
+     * Fetches one page of the current feed given the previous page's cursor
+     */
+    @FunctionalInterface
+    private interface FeedPager {
+        CompletableFuture<DataService.FeedPage> fetch(String cursor);
+    }
+
     @FXML
     private void initialize() {
         // Setup navigation button hover effects
         setupNavButtonHovers();
 
         setupSearchInteractions();
+
+        setupPostList();
         
         // Setup filter controls
         setupFilterControls();
@@ -112,32 +189,30 @@ public class ForumController {
      */
     private void setupFilterControls() {
         // Populate community dropdown
-        try {
-            List<PostDAO.CommunityDTO> communities = postDAO.getAllCommunities();
-            if (communityFilter != null) {
+        data.getAllCommunities().whenComplete((communities, e) -> {
+            if (e != null) {
+                System.err.println("Error loading communities for filter: " + DataService.cause(e).getMessage());
+            } else if (communityFilter != null) {
                 communityFilter.getItems().clear();
                 communityFilter.getItems().add("All Communities");
                 for (PostDAO.CommunityDTO comm : communities) {
                     communityFilter.getItems().add(comm.name);
                 }
-                communityFilter.setOnAction(e -> applyFilters());
+                communityFilter.setOnAction(ev -> applyFilters());
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading communities for filter: " + e.getMessage());
-        }
+        });
         
         // Populate tag dropdown
-        try {
-            List<String> tags = postDAO.getAllTags();
-            if (tagFilter != null) {
+        data.getAllTags().whenComplete((tags, e) -> {
+            if (e != null) {
+                System.err.println("Error loading tags for filter: " + DataService.cause(e).getMessage());
+            } else if (tagFilter != null) {
                 tagFilter.getItems().clear();
                 tagFilter.getItems().add("All Tags");
                 tagFilter.getItems().addAll(tags);
-                tagFilter.setOnAction(e -> applyFilters());
+                tagFilter.setOnAction(ev -> applyFilters());
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading tags for filter: " + e.getMessage());
-        }
+        });
         
         // Setup sort by dropdown
         if (sortByFilter != null) {
@@ -147,6 +222,44 @@ public class ForumController {
         }
     }
     
+    /**
+     * Returns the reused view to a fresh Home feed before initData loads the next user's posts
+     */
+    @Override
+    public void reset() {
+        if (feedRequest != null) {
+            feedRequest.cancel(false);
+            feedFetches.cancel();
+            feedRequest = null;
+            feedFetches = null;
+        }
+        closeModal();
+        hideSuggestions();
+        if (searchField != null) {
+            searchField.clear();
+        }
+        if (searchDebounce != null) {
+            searchDebounce.stop();   // clearing the field must not trigger a search of its own
+        }
+        setSearchStatus("");
+
+        isExploreView = false;
+        if (filterStrip != null) {
+            filterStrip.setVisible(false);
+            filterStrip.setManaged(false);
+        }
+
+        currentUser = null;
+        cachedPosts = new ArrayList<>();
+        userVotes.clear();
+        votesInFlight.clear();
+        feedPager = null;
+        feedCursor = null;
+        correctedKeyword = null;
+        loadingMorePosts = false;
+        renderPosts(cachedPosts);
+    }
+
     public void initData(User user) {
         this.currentUser = user;
         System.out.println("✓ Forum initialized for: " + user.getUsername());
@@ -171,300 +284,403 @@ public class ForumController {
         searchDebounce.setOnFinished(e -> performSearch());
 
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (applyingSuggestion) {
+                return;   // applySuggestion runs its own search
+            }
+
             // Restart debounce timer on every keystroke
             searchDebounce.stop();
             searchDebounce.playFromStart();
+
+            // Completions come from an in-memory trie, so they can follow every keystroke;
+            // the lookup still runs in the background in case the trie has to be built first
+            showSuggestions(newVal);
         });
 
         // Trigger search immediately when user presses Enter
-        searchField.setOnAction(e -> performSearch());
+        searchField.setOnAction(e -> {
+            hideSuggestions();
+            performSearch();
+        });
     }
 
     /**
-     * Loads posts from database (used on initial load and refresh)
+     * Shows the best completions of the search text under the search field
      */
-    public void loadPostsFromDB() {
-        try {
-            // Default to Home view (posts from joined communities) if user is logged in
-            if (currentUser != null) {
-                List<PostDAO.PostDTO> posts = postDAO.getPostsFromJoinedCommunities(currentUser.getUserId());
-                cachedPosts = posts != null ? posts : new ArrayList<>();
-                System.out.println("Controller: Home posts.size = " + cachedPosts.size());
-            } else {
-                // If no user logged in, show all posts sorted by time
-                List<PostDAO.PostDTO> posts = postDAO.getAllPosts();
-                cachedPosts = posts != null ? posts : new ArrayList<>();
-                System.out.println("Controller: posts.size = " + cachedPosts.size());
+    private void showSuggestions(String text) {
+        CompletableFuture<List<SuggestionTrie.Suggestion>> request = data.completeSearch(text);
+        CompletableFuture<?> previous = suggestionRequest;
+        suggestionRequest = request;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        request.whenComplete((suggestions, e) -> {
+            if (request != suggestionRequest) {
+                return;   // the text changed again, or the suggestions were dismissed
+            }
+            suggestionRequest = null;
+            if (e != null) {
+                System.err.println("Error loading search suggestions: " + DataService.cause(e).getMessage());
+                suggestionMenu.hide();
+                return;
             }
+            showSuggestionMenu(suggestions);
+        });
+    }
 
-            // Re-run current search (or show all if no search input)
-            performSearch();
+    private void showSuggestionMenu(List<SuggestionTrie.Suggestion> suggestions) {
+        if (suggestions.isEmpty() || !searchField.isFocused()) {
+            suggestionMenu.hide();
+            return;
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("Error loading DB posts: " + e.getMessage());
+        List<MenuItem> items = new ArrayList<>();
+        for (SuggestionTrie.Suggestion suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion.text + "  ·  " + suggestion.kind.name().toLowerCase());
+            item.setOnAction(e -> applySuggestion(suggestion));
+            items.add(item);
+        }
+        suggestionMenu.getItems().setAll(items);
+        if (!suggestionMenu.isShowing()) {
+            suggestionMenu.show(searchField, Side.BOTTOM, 0, 0);
         }
     }
 
     /**
-     * Renders the given list of posts into the main feed
+     * Hides the completions, including any still being looked up
      */
-    private void renderPosts(List<PostDAO.PostDTO> postsToRender) {
-        postContainer.getChildren().clear();
+    private void hideSuggestions() {
+        if (suggestionRequest != null) {
+            CompletableFuture<?> pending = suggestionRequest;
+            suggestionRequest = null;
+            pending.cancel(false);
+        }
+        suggestionMenu.hide();
+    }
 
-        if (postsToRender == null || postsToRender.isEmpty()) {
-            String message = "No posts available.";
-            String keyword = searchField != null ? searchField.getText() : "";
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                message = "No posts match \"" + keyword.trim() + "\".";
-            }
+    /**
+     * Acts on a picked suggestion: a user opens their profile, a community or tag sets
+     * the matching Explore filter, and anything else is searched for
+     */
+    private void applySuggestion(SuggestionTrie.Suggestion suggestion) {
+        hideSuggestions();
 
-            Label emptyLabel = new Label(message);
-            emptyLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 14; -fx-padding: 24;");
-            postContainer.getChildren().add(emptyLabel);
+        if (suggestion.kind == SuggestionTrie.Kind.USER) {
+            navigateToUserSettings(suggestion.text);
             return;
         }
 
-        for (PostDAO.PostDTO post : postsToRender) {
-            createRedditStylePost(
-                post.postId,
-                post.community,
-                post.author,
-                post.timeAgo,
-                post.title,
-                post.content,
-                post.upvotes,
-                post.comments,
-                post.tag,
-                false
-            );
+        applyingSuggestion = true;
+        try {
+            if (isExploreView && suggestion.kind == SuggestionTrie.Kind.COMMUNITY && communityFilter != null) {
+                searchField.clear();
+                communityFilter.setValue(suggestion.text);   // fires applyFilters
+            } else if (isExploreView && suggestion.kind == SuggestionTrie.Kind.TAG && tagFilter != null) {
+                searchField.clear();
+                tagFilter.setValue(suggestion.text);
+            } else {
+                searchField.setText(suggestion.text);
+                searchField.positionCaret(suggestion.text.length());
+                performSearch();
+            }
+        } finally {
+            applyingSuggestion = false;
         }
     }
 
-	private Node createReplyNode(Reply reply, int level) {
+    /**
+     * Loads posts from database (used on initial load and refresh)
+     */
+    public void loadPostsFromDB() {
+        // Re-run the current view's query (Home by default, or all posts if no user is logged in)
+        performSearch();
+    }
 
-        HBox row = new HBox(6);
+    /**
+     * Fetches the next page of the current feed in the background, then appends it
+     */
+    private void loadMorePosts() {
+        if (feedPager == null || feedCursor == null || loadingMorePosts) {
+            return;
+        }
+        loadingMorePosts = true;
 
-        // LEFT: vertical thread line for nested replies
-        if (level > 0) {
-            VBox lineBox = new VBox();
-            lineBox.setPrefWidth(16);
-            lineBox.setAlignment(Pos.TOP_CENTER);
+        FeedFetches fetches = new FeedFetches();
+        CompletableFuture<DataService.FeedPage> request = fetches.add(feedPager.fetch(feedCursor));
+        startFeedRequest(request, fetches);
+        request.whenComplete((page, e) -> {
+            if (request != feedRequest) {
+                return;
+            }
+            loadingMorePosts = false;
+            if (e != null) {
+                System.err.println("Error loading more posts: " + DataService.cause(e).getMessage());
+                return;
+            }
+            userVotes.putAll(page.userVotes);
+            cachedPosts.addAll(page.posts);
+            feedCursor = page.nextCursor;
+            postListView.getItems().addAll(page.posts);
+        });
+    }
 
-            Region vertical = new Region();
-            VBox.setVgrow(vertical, Priority.ALWAYS);
-            vertical.setStyle("-fx-border-color: #cccccc; -fx-border-width: 0 0 0 2;");
+    /**
+     * Makes the request the feed's current one and cancels the previous, together with
+     * the queries behind it: its results would only be overwritten
+     * @param fetches the page fetches the request is made of
+     */
+    private void startFeedRequest(CompletableFuture<?> request, FeedFetches fetches) {
+        CompletableFuture<?> previous = feedRequest;
+        FeedFetches previousFetches = feedFetches;
+        feedRequest = request;   // first, so the cancelled request sees it is stale
+        feedFetches = fetches;
+        if (previous != null) {
+            previous.cancel(false);
+            previousFetches.cancel();
+        }
+    }
 
-            lineBox.getChildren().add(vertical);
-            row.getChildren().add(lineBox);
+    private void setSearchStatus(String text) {
+        if (searchStatusLabel != null) {
+            searchStatusLabel.setText(text);
         }
+    }
 
-        // RIGHT: reply content with horizontal top line
-        VBox card = new VBox(4);
-        card.setPadding(new Insets(4, 8, 4, 8));
+    /**
+     * Sets up the feed list: cards are drawn by recycled {@link PostCardCell}s
+     */
+    private void setupPostList() {
+        feedPlaceholder.setStyle("-fx-text-fill: #555555; -fx-font-size: 14; -fx-padding: 24;");
+        postListView.setPlaceholder(feedPlaceholder);
+        postListView.setFocusTraversable(false);
+        postListView.setCellFactory(list -> new PostCardCell());
+    }
 
-        String style = "-fx-background-color: transparent;";
-        if (level > 0) {
-            // this is the horizontal line at each reply
-            style += "-fx-border-color: #cccccc; -fx-border-width: 1 0 0 0;";
+    /**
+     * Shows the given list of posts in the main feed, from the top
+     */
+    private void renderPosts(List<PostDAO.PostDTO> postsToRender) {
+        String message = "No posts available.";
+        String keyword = searchField != null ? searchField.getText() : "";
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            message = "No posts match \"" + keyword.trim() + "\".";
         }
-        card.setStyle(style);
-
-        Label text = new Label(reply.getText());
-        text.setWrapText(true);
-        text.setStyle("-fx-font-size: 12; -fx-text-fill: #555555;");
+        feedPlaceholder.setText(message);
 
-        card.getChildren().add(text);
+        correctionLabel.setText(correctedKeyword != null ? "Showing results for \"" + correctedKeyword + "\"" : "");
+        correctionLabel.setVisible(correctedKeyword != null);
+        correctionLabel.setManaged(correctedKeyword != null);
 
-        // children (nested replies)
-        if (reply.getChildren() != null && !reply.getChildren().isEmpty()) {
-            VBox childrenBox = new VBox(2);
-            for (Reply child : reply.getChildren()) {
-                Node childNode = createReplyNode(child, level + 1);
-                childrenBox.getChildren().add(childNode);
-            }
-            card.getChildren().add(childrenBox);
+        if (postsToRender == null) {
+            postListView.getItems().clear();
+            return;
+        }
+        postListView.getItems().setAll(postsToRender);
+        if (!postsToRender.isEmpty()) {
+            postListView.scrollTo(0);
         }
-
-        row.getChildren().add(card);
-        return row;
     }
 
-
-
+    private static final String DEFAULT_VOTE_STYLE = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
+    private static final String VOTED_STYLE = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
+    private static final String AUTHOR_STYLE = "-fx-text-fill: #7678ED; -fx-font-size: 12; -fx-cursor: hand; -fx-underline: true;";
+    private static final String AUTHOR_HOVER_STYLE = "-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-cursor: hand; -fx-underline: true;";
 
     /**
-     * Creates a post card with upvote/downvote, community info, and action buttons
+     * A post card with upvote/downvote, community info, and action buttons.
+     * The list only creates as many cells as fit on screen; scrolling hands a cell
+     * another post and {@link #updateItem} rebinds the same nodes to it.
      */
-    private void createRedditStylePost(int postId, String community, String author, String timeAgo, 
-                                       String title, String content, int upvotes, int comments, String tag, boolean hasJoinButton) {
-        HBox postCard = new HBox(8);
-        postCard.setPadding(new Insets(8));
-        postCard.setStyle("-fx-background-color: white; -fx-border-color: #E0E0E0; -fx-border-width: 0 0 1 0; -fx-cursor: hand; -fx-background-radius: 8;");
-        
-        // Make entire post clickable to open detail view
-        postCard.setOnMouseClicked(e -> openPostDetail(postId));
-
-        // LEFT: Upvote/Downvote buttons
-        VBox voteBox = new VBox(4);
-        voteBox.setAlignment(Pos.TOP_CENTER);
-        voteBox.setPrefWidth(40);
-        voteBox.setStyle("-fx-padding: 4 0;");
-
-        // Create vote count label first so it can be referenced in button handlers
-        Label voteCount = new Label(String.valueOf(upvotes));
-        voteCount.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-font-weight: bold;");
-        
-        // Check user's current vote status
-        int userVote = 0;
-        if (currentUser != null) {
-            try {
-                userVote = postDAO.getUserVote(postId, currentUser.getUserId());
-            } catch (SQLException e) {
-                System.err.println("Error checking user vote: " + e.getMessage());
-            }
-        }
-        
-        // Default styles
-        String defaultUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-        String defaultDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-        String votedUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-        String votedDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-        
-        // Create both buttons first
-        Button upvoteBtn = new Button("▲");
-        Button downvoteBtn = new Button("▼");
-        
-        // Set initial styles
-        upvoteBtn.setStyle(userVote == 1 ? votedUpvoteStyle : defaultUpvoteStyle);
-        downvoteBtn.setStyle(userVote == -1 ? votedDownvoteStyle : defaultDownvoteStyle);
-        
-        // Set up click handlers after both buttons are created
-        upvoteBtn.setOnMouseClicked(e -> {
-            e.consume(); // Prevent opening detail when clicking vote
-            handleUpvote(postId, voteCount, upvoteBtn, downvoteBtn);
-        });
-        
-        downvoteBtn.setOnMouseClicked(e -> {
-            e.consume(); // Prevent opening detail when clicking vote
-            handleDownvote(postId, voteCount, upvoteBtn, downvoteBtn);
-        });
+    private final class PostCardCell extends ListCell<PostDAO.PostDTO> {
+
+        private final HBox postCard = new HBox(8);
+        private final Button upvoteBtn = new Button("▲");
+        private final Label voteCount = new Label();
+        private final Button downvoteBtn = new Button("▼");
+        private final Label communityLabel = new Label();
+        private final Label authorNameLabel = new Label();
+        private final Label timeLabel = new Label();
+        private final HBox tagBox = new HBox(6);
+        private final Label tagLabel = new Label();
+        private final Label titleLabel = new Label();
+        private final Label contentLabel = new Label();
+        private final Label commentCount = new Label();
+
+        PostCardCell() {
+            postCard.setPadding(new Insets(8));
+            postCard.setStyle("-fx-background-color: white; -fx-border-color: #E0E0E0; -fx-border-width: 0 0 1 0; -fx-cursor: hand; -fx-background-radius: 8;");
+
+            // Make entire post clickable to open detail view
+            postCard.setOnMouseClicked(e -> {
+                if (getItem() != null) {
+                    openPostDetail(getItem().postId);
+                }
+            });
 
-        voteBox.getChildren().addAll(upvoteBtn, voteCount, downvoteBtn);
+            // LEFT: Upvote/Downvote buttons
+            VBox voteBox = new VBox(4);
+            voteBox.setAlignment(Pos.TOP_CENTER);
+            voteBox.setPrefWidth(40);
+            voteBox.setMinWidth(40);
+            voteBox.setStyle("-fx-padding: 4 0;");
 
-        // CENTER: Post content
-        VBox contentBox = new VBox(6);
-        contentBox.setPadding(new Insets(4, 0, 4, 0));
-        VBox.setVgrow(contentBox, Priority.ALWAYS);
+            voteCount.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-font-weight: bold;");
 
-        // Community and metadata row
-        HBox metaRow = new HBox(8);
-        metaRow.setAlignment(Pos.CENTER_LEFT);
+            upvoteBtn.setOnMouseClicked(e -> {
+                e.consume(); // Prevent opening detail when clicking vote
+                if (getItem() != null) {
+                    handleUpvote(getItem(), this);
+                }
+            });
 
-        Label communityLabel = new Label(community);
-        communityLabel.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-font-weight: bold; -fx-cursor: hand;");
+            downvoteBtn.setOnMouseClicked(e -> {
+                e.consume(); // Prevent opening detail when clicking vote
+                if (getItem() != null) {
+                    handleDownvote(getItem(), this);
+                }
+            });
 
-        // Build author and time label with clickable author name
-        HBox authorTimeBox = new HBox(4);
-        authorTimeBox.setAlignment(Pos.CENTER_LEFT);
-        
-        Label postedByLabel = new Label("Posted by ");
-        postedByLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
-        
-        Label authorNameLabel = new Label(author);
-        authorNameLabel.setStyle("-fx-text-fill: #7678ED; -fx-font-size: 12; -fx-cursor: hand; -fx-underline: true;");
-        authorNameLabel.setOnMouseClicked(e -> navigateToUserSettings(author));
-        authorNameLabel.setOnMouseEntered(e -> authorNameLabel.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-cursor: hand; -fx-underline: true;"));
-        authorNameLabel.setOnMouseExited(e -> authorNameLabel.setStyle("-fx-text-fill: #7678ED; -fx-font-size: 12; -fx-cursor: hand; -fx-underline: true;"));
-        
-        Label timeLabel = new Label(" • " + timeAgo);
-        timeLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
-        
-        authorTimeBox.getChildren().addAll(postedByLabel, authorNameLabel, timeLabel);
+            voteBox.getChildren().addAll(upvoteBtn, voteCount, downvoteBtn);
+
+            // CENTER: Post content
+            VBox contentBox = new VBox(6);
+            contentBox.setPadding(new Insets(4, 0, 4, 0));
+            contentBox.setMinWidth(0);
+            HBox.setHgrow(contentBox, Priority.ALWAYS);
+
+            // Community and metadata row
+            HBox metaRow = new HBox(8);
+            metaRow.setAlignment(Pos.CENTER_LEFT);
+
+            communityLabel.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 12; -fx-font-weight: bold; -fx-cursor: hand;");
 
-        // Add tag as a styled box if present
-        if (tag != null && !tag.trim().isEmpty()) {
-            HBox tagBox = new HBox(6);
+            // Author and time label with clickable author name
+            HBox authorTimeBox = new HBox(4);
+            authorTimeBox.setAlignment(Pos.CENTER_LEFT);
+
+            Label postedByLabel = new Label("Posted by ");
+            postedByLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
+
+            authorNameLabel.setStyle(AUTHOR_STYLE);
+            authorNameLabel.setOnMouseClicked(e -> {
+                e.consume();
+                if (getItem() != null) {
+                    navigateToUserSettings(getItem().author);
+                }
+            });
+            authorNameLabel.setOnMouseEntered(e -> authorNameLabel.setStyle(AUTHOR_HOVER_STYLE));
+            authorNameLabel.setOnMouseExited(e -> authorNameLabel.setStyle(AUTHOR_STYLE));
+
+            timeLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
+
+            authorTimeBox.getChildren().addAll(postedByLabel, authorNameLabel, timeLabel);
+
+            // Tag as a styled box, hidden for posts without one
             tagBox.setAlignment(Pos.CENTER_LEFT);
             tagBox.setStyle("-fx-background-color: #7678ED; -fx-background-radius: 12; -fx-padding: 4 8;");
-            
-            Label tagLabel = new Label(tag);
             tagLabel.setStyle("-fx-text-fill: #ffffff; -fx-font-size: 12;");
-            
             tagBox.getChildren().add(tagLabel);
 
-        if (hasJoinButton) {
-            Button joinBtn = new Button("Join");
-                joinBtn.setStyle("-fx-background-color: #7678ED; -fx-text-fill: white; -fx-font-size: 11; -fx-font-weight: bold; -fx-background-radius: 999; -fx-padding: 2 16; -fx-cursor: hand;");
-                metaRow.getChildren().addAll(communityLabel, authorTimeBox, tagBox, new Region(), joinBtn);
-                HBox.setHgrow(metaRow.getChildren().get(3), Priority.ALWAYS);
-            } else {
-                metaRow.getChildren().addAll(communityLabel, authorTimeBox, tagBox);
-            }
-        } else {
-            if (hasJoinButton) {
-                Button joinBtn = new Button("Join");
-                joinBtn.setStyle("-fx-background-color: #7678ED; -fx-text-fill: white; -fx-font-size: 11; -fx-font-weight: bold; -fx-background-radius: 999; -fx-padding: 2 16; -fx-cursor: hand;");
-                metaRow.getChildren().addAll(communityLabel, authorTimeBox, new Region(), joinBtn);
-                HBox.setHgrow(metaRow.getChildren().get(2), Priority.ALWAYS);
-            } else {
-                metaRow.getChildren().addAll(communityLabel, authorTimeBox);
-            }
+            metaRow.getChildren().addAll(communityLabel, authorTimeBox, tagBox);
+
+            // Post title
+            titleLabel.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 18; -fx-font-weight: bold; -fx-cursor: hand; -fx-wrap-text: true;");
+            titleLabel.setWrapText(true);
+
+            // Post content - show only 1 line with ellipsis
+            contentLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 14;");
+            contentLabel.setWrapText(false);
+            contentLabel.setMaxWidth(Double.MAX_VALUE);
+            contentLabel.setTextOverrun(javafx.scene.control.OverrunStyle.ELLIPSIS);
+
+            // Action buttons row
+            HBox actionRow = new HBox(16);
+            actionRow.setAlignment(Pos.CENTER_LEFT);
+            actionRow.setStyle("-fx-padding: 8 0 0 0;");
+
+            Button commentBtn = createActionButton("💬 Comment", commentCount);
+            commentBtn.setOnMouseClicked(e -> {
+                e.consume(); // Prevent opening detail when clicking comment
+                if (getItem() != null) {
+                    openPostDetail(getItem().postId); // Open post detail view with reply functionality
+                }
+            });
+
+            actionRow.getChildren().addAll(commentBtn);
+
+            contentBox.getChildren().addAll(metaRow, titleLabel, contentLabel, actionRow);
+
+            postCard.getChildren().addAll(voteBox, contentBox);
+
+            // The card is the whole cell; a zero pref width keeps long titles wrapping
+            // to the list's width instead of widening the cell
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            setPrefWidth(0);
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 0 8 0;");
         }
 
-        // Post title
-        Label titleLabel = new Label(title);
-        titleLabel.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 18; -fx-font-weight: bold; -fx-cursor: hand; -fx-wrap-text: true;");
-        titleLabel.setWrapText(true);
+        @Override
+        protected void updateItem(PostDAO.PostDTO post, boolean empty) {
+            super.updateItem(post, empty);
+            if (empty || post == null) {
+                setGraphic(null);
+                return;
+            }
 
-        // Post content - show only 1 line with ellipsis
-        Label contentLabel = new Label(content);
-        contentLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 14;");
-        contentLabel.setWrapText(false);
-        contentLabel.setMaxWidth(Double.MAX_VALUE);
-        contentLabel.setTextOverrun(javafx.scene.control.OverrunStyle.ELLIPSIS);
-
-        // Action buttons row
-        HBox actionRow = new HBox(16);
-        actionRow.setAlignment(Pos.CENTER_LEFT);
-        actionRow.setStyle("-fx-padding: 8 0 0 0;");
-
-        Button commentBtn = createActionButton("💬 Comment", String.valueOf(comments));
-        commentBtn.setOnMouseClicked(e -> {
-            e.consume(); // Prevent opening detail when clicking comment
-            openPostDetail(postId); // Open post detail view with reply functionality
-        });
+            showVotes(post);
+
+            communityLabel.setText(post.community);
+            authorNameLabel.setText(post.author);
+            timeLabel.setText(" • " + post.timeAgo);
+
+            boolean hasTag = post.tag != null && !post.tag.trim().isEmpty();
+            tagLabel.setText(hasTag ? post.tag : "");
+            tagBox.setVisible(hasTag);
+            tagBox.setManaged(hasTag);
 
-        actionRow.getChildren().addAll(commentBtn);
+            titleLabel.setText(post.title);
+            contentLabel.setText(post.content);
+            commentCount.setText(String.valueOf(post.comments));
+            setGraphic(postCard);
 
-        contentBox.getChildren().addAll(metaRow, titleLabel, contentLabel, actionRow);
+            // Reaching the last loaded post fetches the next page
+            if (getIndex() == getListView().getItems().size() - 1) {
+                loadMorePosts();
+            }
+        }
 
-        postCard.getChildren().addAll(voteBox, contentBox);
-        postContainer.getChildren().add(postCard);
+        /**
+         * Shows the post's count and the user's vote on it
+         */
+        void showVotes(PostDAO.PostDTO post) {
+            int userVote = userVotes.getOrDefault(post.postId, 0);
+            voteCount.setText(String.valueOf(post.upvotes));
+            upvoteBtn.setStyle(userVote == 1 ? VOTED_STYLE : DEFAULT_VOTE_STYLE);
+            downvoteBtn.setStyle(userVote == -1 ? VOTED_STYLE : DEFAULT_VOTE_STYLE);
+        }
     }
 
     /**
      * Opens the post detail popup with replies
      */
     private void openPostDetail(int postId) {
-        try {
-            // Get the full post data
-            PostDAO.PostDTO postData = null;
-            
-            // Find the post with matching postId
-            var allPosts = postDAO.getAllPosts();
-            for (PostDAO.PostDTO post : allPosts) {
-                if (post.postId == postId) {
-                    postData = post;
-                    break;
-                }
-            }
-            
-            if (postData == null) {
+        // Get the full post data in the background, then show it
+        data.getPostById(postId).whenComplete((postData, e) -> {
+            if (e != null) {
+                System.out.println("Error opening post detail: " + DataService.cause(e).getMessage());
+            } else if (postData == null) {
                 System.out.println("Post not found with id: " + postId);
-                return;
+            } else {
+                showPostDetail(postData);
             }
+        });
+    }
 
+    /**
+     * Shows the post detail popup for a loaded post
+     */
+    private void showPostDetail(PostDAO.PostDTO postData) {
+        try {
             // Load the post detail FXML
             FXMLLoader loader = new FXMLLoader(
                 getClass().getResource("/edu/northeastern/uniforum/forum/view/post_detail.fxml")
@@ -531,16 +747,16 @@ public class ForumController {
 
     /**
      * Creates an action button for posts (Comment, Share, Save, etc.)
+     * @param countLabel label showing the count next to the text, or null for none
      */
-    private Button createActionButton(String text, String count) {
+    private Button createActionButton(String text, Label countLabel) {
         HBox btnContent = new HBox(4);
         btnContent.setAlignment(Pos.CENTER);
 
         Label textLabel = new Label(text);
         textLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
 
-        if (!count.isEmpty()) {
-            Label countLabel = new Label(count);
+        if (countLabel != null) {
             countLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 12;");
             btnContent.getChildren().addAll(textLabel, countLabel);
         } else {
@@ -593,120 +809,118 @@ public class ForumController {
         performSearch();
     }
 
+    /**
+     * Loads the first page of posts matching the current view, search keyword and
+     * filters, and renders it. Filtering and sorting are done by SQLite.
+     */
     private void performSearch() {
-        if (cachedPosts == null) {
-            cachedPosts = new ArrayList<>();
-        }
+        PostQuery query = buildFeedQuery(searchField != null ? searchField.getText() : null);
+        Integer userId = currentUser != null ? currentUser.getUserId() : null;
+        FeedPager pager = cursor -> data.getFeedPage(query, cursor, userId);
+        long start = System.nanoTime();
+
+        FeedFetches fetches = new FeedFetches();
+        CompletableFuture<SearchResult> request = fetches.add(pager.fetch(null)).thenCompose(page -> {
+            SearchResult result = new SearchResult();
+            result.page = page;
+            result.pager = pager;
+            if (!page.posts.isEmpty() || query.getKeyword() == null) {
+                return CompletableFuture.completedFuture(result);
+            }
 
-        String keyword = searchField != null ? searchField.getText() : "";
-        List<PostDAO.PostDTO> filtered = new ArrayList<>(cachedPosts);
-        
-        // Apply search keyword filter if present
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String lowered = keyword.trim().toLowerCase();
-            filtered.removeIf(post -> {
-                String title = post.title != null ? post.title.toLowerCase() : "";
-                String content = post.content != null ? post.content.toLowerCase() : "";
-                return !title.contains(lowered) && !content.contains(lowered);
+            // Nothing matched: retry once with misspelled words replaced by the closest indexed words
+            return data.correctSearch(query.getKeyword()).thenCompose(corrected -> {
+                if (corrected == null) {
+                    return CompletableFuture.completedFuture(result);
+                }
+                PostQuery correctedQuery = buildFeedQuery(corrected);
+                FeedPager correctedPager = cursor -> data.getFeedPage(correctedQuery, cursor, userId);
+                return fetches.add(correctedPager.fetch(null)).thenApply(correctedPage -> {
+                    if (!correctedPage.posts.isEmpty()) {
+                        result.page = correctedPage;
+                        result.pager = correctedPager;
+                        result.correctedKeyword = corrected;
+                    }
+                    return result;
+                });
             });
-        }
-        
-        // If on Explore view, apply additional filters (community, tag, sort)
-        if (isExploreView) {
-            // Filter by community
-            if (communityFilter != null && communityFilter.getValue() != null 
-                && !communityFilter.getValue().equals("All Communities")) {
-                String selectedCommunity = communityFilter.getValue();
-                filtered.removeIf(post -> !post.community.equals(selectedCommunity));
-            }
-            
-            // Filter by tag
-            if (tagFilter != null && tagFilter.getValue() != null 
-                && !tagFilter.getValue().equals("All Tags")) {
-                String selectedTag = tagFilter.getValue();
-                filtered.removeIf(post -> post.tag == null || !post.tag.equals(selectedTag));
+        });
+
+        setSearchStatus("Searching...");
+        loadingMorePosts = false;   // a page load still running is cancelled by this search
+        startFeedRequest(request, fetches);
+
+        request.whenComplete((result, e) -> {
+            // Only the newest search may touch the feed
+            if (request != feedRequest) {
+                return;
             }
-            
-            // Sort posts
-            if (sortByFilter != null && sortByFilter.getValue() != null) {
-                String sortOption = sortByFilter.getValue();
-                switch (sortOption) {
-                    case "Most Liked":
-                        filtered.sort((a, b) -> Integer.compare(b.upvotes, a.upvotes));
-                        break;
-                    case "Least Liked":
-                        filtered.sort((a, b) -> Integer.compare(a.upvotes, b.upvotes));
-                        break;
-                    case "Latest":
-                        // For latest, reload from DB with time sorting
-                        try {
-                            List<PostDAO.PostDTO> timeSorted = postDAO.getAllPosts();
-                            // Apply all filters to time-sorted list
-                            if (keyword != null && !keyword.trim().isEmpty()) {
-                                String lowered = keyword.trim().toLowerCase();
-                                timeSorted.removeIf(post -> {
-                                    String title = post.title != null ? post.title.toLowerCase() : "";
-                                    String content = post.content != null ? post.content.toLowerCase() : "";
-                                    return !title.contains(lowered) && !content.contains(lowered);
-                                });
-                            }
-                            if (communityFilter != null && communityFilter.getValue() != null 
-                                && !communityFilter.getValue().equals("All Communities")) {
-                                String selectedCommunity = communityFilter.getValue();
-                                timeSorted.removeIf(post -> !post.community.equals(selectedCommunity));
-                            }
-                            if (tagFilter != null && tagFilter.getValue() != null 
-                                && !tagFilter.getValue().equals("All Tags")) {
-                                String selectedTag = tagFilter.getValue();
-                                timeSorted.removeIf(post -> post.tag == null || !post.tag.equals(selectedTag));
-                            }
-                            filtered = timeSorted; // Already sorted DESC by time
-                        } catch (SQLException e) {
-                            System.err.println("Error reloading posts for latest sort: " + e.getMessage());
-                        }
-                        break;
-                    case "Oldest":
-                        // For oldest, reload from DB and reverse
-                        try {
-                            List<PostDAO.PostDTO> timeSorted = postDAO.getAllPosts();
-                            // Apply all filters to time-sorted list
-                            if (keyword != null && !keyword.trim().isEmpty()) {
-                                String lowered = keyword.trim().toLowerCase();
-                                timeSorted.removeIf(post -> {
-                                    String title = post.title != null ? post.title.toLowerCase() : "";
-                                    String content = post.content != null ? post.content.toLowerCase() : "";
-                                    return !title.contains(lowered) && !content.contains(lowered);
-                                });
-                            }
-                            if (communityFilter != null && communityFilter.getValue() != null 
-                                && !communityFilter.getValue().equals("All Communities")) {
-                                String selectedCommunity = communityFilter.getValue();
-                                timeSorted.removeIf(post -> !post.community.equals(selectedCommunity));
-                            }
-                            if (tagFilter != null && tagFilter.getValue() != null 
-                                && !tagFilter.getValue().equals("All Tags")) {
-                                String selectedTag = tagFilter.getValue();
-                                timeSorted.removeIf(post -> post.tag == null || !post.tag.equals(selectedTag));
-                            }
-                            java.util.Collections.reverse(timeSorted); // Reverse to get oldest first
-                            filtered = timeSorted;
-                        } catch (SQLException e) {
-                            System.err.println("Error reloading posts for oldest sort: " + e.getMessage());
-                        }
-                        break;
-                }
-            } else {
-                // Default: sort by upvotes (most liked first) if no sort selected
-                filtered.sort((a, b) -> Integer.compare(b.upvotes, a.upvotes));
+            if (e != null) {
+                System.err.println("Error searching posts: " + DataService.cause(e).getMessage());
+                cachedPosts = new ArrayList<>();
+                userVotes.clear();
+                feedPager = null;
+                feedCursor = null;
+                correctedKeyword = null;
+                renderPosts(cachedPosts);
+                setSearchStatus("Search failed");
+                return;
             }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            cachedPosts = new ArrayList<>(result.page.posts);
+            userVotes.clear();
+            userVotes.putAll(result.page.userVotes);
+            feedPager = result.pager;
+            feedCursor = result.page.nextCursor;
+            correctedKeyword = result.correctedKeyword;
+            renderPosts(cachedPosts);
+
+            String shown = cachedPosts.size() + (feedCursor != null ? "+" : "");
+            setSearchStatus(shown + " post" + (cachedPosts.size() == 1 && feedCursor == null ? "" : "s")
+                    + " in " + elapsedMillis + " ms");
+            System.out.println("Controller: posts.size = " + cachedPosts.size());
+        });
+    }
+
+    /**
+     * Describes the posts the current view should show: Home lists the user's
+     * communities, Explore applies the community, tag and sort dropdowns
+     */
+    private PostQuery buildFeedQuery(String keyword) {
+        PostQuery query = new PostQuery();
+        query.setLimit(FEED_PAGE_SIZE);
+        query.setKeyword(keyword);
+
+        if (isExploreView) {
+            query.setCommunity(selectedFilter(communityFilter, "All Communities"));
+            query.setTag(selectedFilter(tagFilter, "All Tags"));
+            String sortOption = sortByFilter != null && sortByFilter.getValue() != null
+                    ? sortByFilter.getValue() : "Most Liked";
+            query.setSort(switch (sortOption) {
+                case "Least Liked" -> PostQuery.Sort.LEAST_LIKED;
+                case "Latest" -> PostQuery.Sort.LATEST;
+                case "Oldest" -> PostQuery.Sort.OLDEST;
+                default -> PostQuery.Sort.MOST_LIKED;
+            });
         } else {
-            // On Home view, if search keyword exists, sort by upvotes
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                filtered.sort((a, b) -> Integer.compare(b.upvotes, a.upvotes));
+            if (currentUser != null) {
+                query.setJoinedByUserId(currentUser.getUserId());
             }
+            // On Home view, if search keyword exists, sort by upvotes
+            query.setSort(query.getKeyword() != null ? PostQuery.Sort.MOST_LIKED : PostQuery.Sort.LATEST);
         }
+        return query;
+    }
 
-        renderPosts(filtered);
+    /**
+     * @return the selected dropdown value, or null when nothing or the "All ..." entry is selected
+     */
+    private static String selectedFilter(ComboBox<String> filter, String allOption) {
+        if (filter == null || filter.getValue() == null || filter.getValue().equals(allOption)) {
+            return null;
+        }
+        return filter.getValue();
     }
 
     @FXML
@@ -858,24 +1072,13 @@ public class ForumController {
             filterStrip.setManaged(false);
         }
         
-        try {
-            // Get posts from communities the user has joined, sorted by most recent
-            List<PostDAO.PostDTO> posts = postDAO.getPostsFromJoinedCommunities(currentUser.getUserId());
-            cachedPosts = posts != null ? posts : new ArrayList<>();
-            
-            System.out.println("Controller: Home posts.size = " + cachedPosts.size());
-            
-            // Clear search field
-            if (searchField != null) {
-                searchField.clear();
-            }
-            
-            // Render posts
-            renderPosts(cachedPosts);
-        } catch (SQLException e) {
-            System.err.println("Error loading home posts: " + e.getMessage());
-            e.printStackTrace();
+        // Clear search field
+        if (searchField != null) {
+            searchField.clear();
         }
+
+        // Posts from communities the user has joined, most recent first, one page at a time
+        performSearch();
     }
 
     @FXML
@@ -892,47 +1095,22 @@ public class ForumController {
             filterStrip.setManaged(true);
         }
         
-        try {
-            // Get all posts sorted by number of likes (descending)
-            List<PostDAO.PostDTO> posts = postDAO.getAllPostsSortedByLikes();
-            cachedPosts = posts != null ? posts : new ArrayList<>();
-            
-            System.out.println("Controller: Explore posts.size = " + cachedPosts.size());
-            
-            // Clear search field
-            if (searchField != null) {
-                searchField.clear();
-            }
-            
-            // Apply filters and render posts
-            applyFilters();
-        } catch (SQLException e) {
-            System.err.println("Error loading explore posts: " + e.getMessage());
-            e.printStackTrace();
+        // Clear search field
+        if (searchField != null) {
+            searchField.clear();
         }
+        
+        // Query posts for the selected filters and render them
+        applyFilters();
     }
     
     /**
-     * Applies filters (community, tag, sort) to cached posts and renders them
+     * Applies filters (community, tag, sort) and renders the matching posts
      */
     private void applyFilters() {
         if (!isExploreView) {
             return;
         }
-        
-        // Reload posts if sorting by Latest or Oldest (need time-based sorting)
-        if (sortByFilter != null && sortByFilter.getValue() != null) {
-            String sortOption = sortByFilter.getValue();
-            if (sortOption.equals("Latest") || sortOption.equals("Oldest")) {
-                try {
-                    cachedPosts = postDAO.getAllPosts();
-                } catch (SQLException e) {
-                    System.err.println("Error reloading posts for time-based sort: " + e.getMessage());
-                }
-            }
-        }
-        
-        // Use performSearch which handles all filters including search keyword
         performSearch();
     }
 
@@ -961,124 +1139,65 @@ public class ForumController {
      * Navigates to settings view for a given username
      */
     private void navigateToUserSettings(String username) {
-        UserDAO userDAO = new UserDAO();
-        User user = userDAO.getUserByUsername(username);
-        if (user != null && currentUser != null) {
-            // Pass both logged-in user and viewed user
-            SceneManager.switchToSettings(currentUser, user);
-        } else {
-            System.out.println("User not found: " + username);
-        }
+        data.getUserByUsername(username).thenAccept(user -> {
+            if (user != null && currentUser != null) {
+                // Pass both logged-in user and viewed user
+                SceneManager.switchToSettings(currentUser, user);
+            } else {
+                System.out.println("User not found: " + username);
+            }
+        });
     }
 
     /**
-     * Handles upvote button click - checks if user already voted
+     * Handles upvote button click - adds, removes or switches the user's vote
      */
-    private void handleUpvote(int postId, Label voteCountLabel, Button upvoteBtn, Button downvoteBtn) {
-        if (currentUser == null) {
-            System.out.println("User must be logged in to vote.");
-            return;
-        }
-        
-        try {
-            boolean voteAdded = postDAO.handleUpvote(postId, currentUser.getUserId());
-            
-            // Get updated vote count from database
-            int newCount = postDAO.getVoteCount(postId);
-            voteCountLabel.setText(String.valueOf(newCount));
-            
-            // Update cached post data
-            for (PostDAO.PostDTO post : cachedPosts) {
-                if (post.postId == postId) {
-                    post.upvotes = newCount;
-                    break;
-                }
-            }
-            
-            // Update button colors based on vote status
-            String defaultUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-            String defaultDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-            String votedUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-            String votedDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-            
-            if (voteAdded) {
-                // Vote was added, check current status
-                int currentVote = postDAO.getUserVote(postId, currentUser.getUserId());
-                if (currentVote == 1) {
-                    upvoteBtn.setStyle(votedUpvoteStyle);
-                    downvoteBtn.setStyle(defaultDownvoteStyle);
-                } else {
-                    upvoteBtn.setStyle(defaultUpvoteStyle);
-                    downvoteBtn.setStyle(defaultDownvoteStyle);
-                }
-            } else {
-                // Vote was removed
-                upvoteBtn.setStyle(defaultUpvoteStyle);
-                downvoteBtn.setStyle(defaultDownvoteStyle);
-            }
-            
-            if (!voteAdded) {
-                System.out.println("Upvote removed (user had already upvoted).");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error handling upvote: " + e.getMessage());
-            e.printStackTrace();
-        }
+    private void handleUpvote(PostDAO.PostDTO post, PostCardCell card) {
+        handleVote(post, 1, card);
     }
 
     /**
-     * Handles downvote button click - checks if user already voted
+     * Handles downvote button click - adds, removes or switches the user's vote
      */
-    private void handleDownvote(int postId, Label voteCountLabel, Button upvoteBtn, Button downvoteBtn) {
+    private void handleDownvote(PostDAO.PostDTO post, PostCardCell card) {
+        handleVote(post, -1, card);
+    }
+
+    /**
+     * Records the vote in the background and updates the card from the DAO's result,
+     * without re-reading the count or the user's vote. Clicks on a post whose previous
+     * vote is still being saved are ignored, so votes are applied in click order.
+     */
+    private void handleVote(PostDAO.PostDTO post, int direction, PostCardCell card) {
         if (currentUser == null) {
             System.out.println("User must be logged in to vote.");
             return;
         }
-        
-        try {
-            boolean voteAdded = postDAO.handleDownvote(postId, currentUser.getUserId());
-            
-            // Get updated vote count from database
-            int newCount = postDAO.getVoteCount(postId);
-            voteCountLabel.setText(String.valueOf(newCount));
-            
-            // Update cached post data
-            for (PostDAO.PostDTO post : cachedPosts) {
-                if (post.postId == postId) {
-                    post.upvotes = newCount;
-                    break;
-                }
+        if (!votesInFlight.add(post.postId)) {
+            return;
+        }
+
+        data.castVote(post.postId, currentUser.getUserId(), direction).whenComplete((result, e) -> {
+            votesInFlight.remove(post.postId);
+            if (e != null) {
+                System.err.println("Error handling " + (direction == 1 ? "upvote" : "downvote") + ": "
+                        + DataService.cause(e).getMessage());
+                return;
             }
-            
-            // Update button colors based on vote status
-            String defaultUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-            String defaultDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #555555; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8;";
-            String votedUpvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-            String votedDownvoteStyle = "-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 16; -fx-cursor: hand; -fx-padding: 2 8; -fx-font-weight: bold;";
-            
-            if (voteAdded) {
-                // Vote was added, check current status
-                int currentVote = postDAO.getUserVote(postId, currentUser.getUserId());
-                if (currentVote == -1) {
-                    upvoteBtn.setStyle(defaultUpvoteStyle);
-                    downvoteBtn.setStyle(votedDownvoteStyle);
-                } else {
-                    upvoteBtn.setStyle(defaultUpvoteStyle);
-                    downvoteBtn.setStyle(defaultDownvoteStyle);
-                }
-            } else {
-                // Vote was removed
-                upvoteBtn.setStyle(defaultUpvoteStyle);
-                downvoteBtn.setStyle(defaultDownvoteStyle);
+
+            // Update the post data; recycled cards read it back when they show this post again
+            post.upvotes = result.voteCount;
+            userVotes.put(post.postId, result.userVote);
+
+            // The card may show another post by now
+            if (card.getItem() == post) {
+                card.showVotes(post);
             }
-            
-            if (!voteAdded) {
-                System.out.println("Downvote removed (user had already downvoted).");
+
+            if (result.userVote == 0) {
+                System.out.println((direction == 1 ? "Upvote" : "Downvote") + " removed (user had already voted).");
             }
-        } catch (SQLException e) {
-            System.err.println("Error handling downvote: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -3,9 +3,7 @@
 package edu.northeastern.uniforum.forum.controller;
 
 
-import edu.northeastern.uniforum.forum.dao.UserDAO;
-import edu.northeastern.uniforum.forum.model.User;
-import edu.northeastern.uniforum.forum.util.PasswordUtil;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -17,7 +15,8 @@ public class LoginController {
     @FXML private PasswordField passwordField;
     @FXML private Label messageLabel;
 
-    private final UserDAO userDAO = new UserDAO();
+    private final DataService data = new DataService();
+    private boolean loggingIn;
 
     @FXML
     public void handleLoginButtonAction() {
@@ -29,23 +28,36 @@ public class LoginController {
             return;
         }
 
-        User user = userDAO.getUserByUsername(username);
-        
-        if (user != null && PasswordUtil.checkPassword(password, user.getPasswordHash())) {
-            // Success: Check if user has joined communities
-            messageLabel.setText("Login Successful! Welcome, " + user.getUsername());
-            
-            // Check if user has joined any communities
-            if (!userDAO.hasUserJoinedCommunities(user.getUserId())) {
-                // New user - redirect to course selection
-                SceneManager.switchToCourseSelection(user);
+        if (loggingIn) {
+            return; // Still checking the previous attempt
+        }
+        loggingIn = true;
+        messageLabel.setText("Logging in...");
+
+        // The password check takes a noticeable fraction of a second, so it runs off the JavaFX thread
+        data.login(username, password).whenComplete((user, e) -> {
+            loggingIn = false;
+            if (e != null) {
+                messageLabel.setText("Could not log in. Please try again.");
+                System.err.println("Login error: " + DataService.cause(e).getMessage());
+            } else if (user != null) {
+                // Success: Check if user has joined communities
+                messageLabel.setText("Login Successful! Welcome, " + user.getUsername());
+                
+                // Check if user has joined any communities
+                data.hasUserJoinedCommunities(user.getUserId()).thenAccept(joined -> {
+                    if (!joined) {
+                        // New user - redirect to course selection
+                        SceneManager.switchToCourseSelection(user);
+                    } else {
+                        // Existing user - go to forum
+                        SceneManager.switchToForum(user);
+                    }
+                });
             } else {
-                // Existing user - go to forum
-                SceneManager.switchToForum(user);
+                messageLabel.setText("Invalid username or password.");
             }
-        } else {
-            messageLabel.setText("Invalid username or password.");
-        }
+        });
     }
     
     @FXML
@@ -1,8 +1,7 @@
 package edu.northeastern.uniforum.forum.controller;
 
-import edu.northeastern.uniforum.forum.dao.UserDAO;
 import edu.northeastern.uniforum.forum.model.User;
-import edu.northeastern.uniforum.forum.util.PasswordUtil;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -15,7 +14,8 @@ public class RegistrationController {
     @FXML private PasswordField passwordField;
     @FXML private Label messageLabel;
 
-    private final UserDAO userDAO = new UserDAO();
+    private final DataService data = new DataService();
+    private boolean registering;
 
     @FXML
     public void handleRegisterButtonAction() {
@@ -44,35 +44,37 @@ public class RegistrationController {
             return;
         }
 
-        // Hash the password
-        try {
-            String passwordHash = PasswordUtil.hashPassword(password);
-
-            // Create user object
-            User newUser = new User(username, passwordHash, email);
-
-            // Attempt registration
-            if (userDAO.registerUser(newUser)) {
-                messageLabel.setText("Registration successful! Redirecting to login...");
-                // Wait a moment then switch to login
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1500);
-                        javafx.application.Platform.runLater(() -> {
-                            SceneManager.switchToLogin();
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
-            } else {
-                messageLabel.setText("Registration failed. Username or email may already exist.");
-            }
-        } catch (Exception e) {
-            messageLabel.setText("Registration error: " + e.getMessage());
-            System.err.println("Registration exception: ");
-            e.printStackTrace();
+        if (registering) {
+            return; // Still saving the previous attempt
         }
+        registering = true;
+
+        // Hash the password off the JavaFX thread, then attempt registration
+        data.hashPassword(password)
+            .thenCompose(passwordHash -> data.registerUser(new User(username, passwordHash, email)))
+            .whenComplete((registered, e) -> {
+                registering = false;
+                if (e != null) {
+                    messageLabel.setText("Registration error: " + DataService.cause(e).getMessage());
+                    System.err.println("Registration exception: ");
+                    DataService.cause(e).printStackTrace();
+                } else if (registered) {
+                    messageLabel.setText("Registration successful! Redirecting to login...");
+                    // Wait a moment then switch to login
+                    new Thread(() -> {
+                        try {
+                            Thread.sleep(1500);
+                            javafx.application.Platform.runLater(() -> {
+                                SceneManager.switchToLogin();
+                            });
+                        } catch (InterruptedException ex) {
+                            ex.printStackTrace();
+                        }
+                    }).start();
+                } else {
+                    messageLabel.setText("Registration failed. Username or email may already exist.");
+                }
+            });
     }
 
     /**
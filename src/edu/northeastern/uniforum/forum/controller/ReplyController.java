@@ -2,15 +2,17 @@ package edu.northeastern.uniforum.forum.controller;
 
 import edu.northeastern.uniforum.forum.dao.PostDAO;
 import edu.northeastern.uniforum.forum.dao.ReplyDAO;
-import edu.northeastern.uniforum.forum.dao.UserDAO;
 import edu.northeastern.uniforum.forum.model.User;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
@@ -21,7 +23,9 @@ import javafx.stage.Stage;
 
 import java.awt.Desktop;
 import java.net.URI;
-import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,6 +40,9 @@ public class ReplyController {
     @FXML
     private VBox repliesContainer;
 
+    @FXML
+    private ScrollPane repliesScrollPane;
+
     @FXML
     private TextArea replyTextArea;
 
@@ -45,11 +52,38 @@ public class ReplyController {
     @FXML
     private VBox replyEditorSection;
 
+    @FXML
+    private Label replyEditorTitle;
+
     private ForumController parentController;
     private PostDAO.PostDTO postData;
     private int postId;
     private User currentUser;
-    private final ReplyDAO replyDAO = new ReplyDAO();
+    private final DataService data = new DataService();
+    private ReplyDAO.ReplyDTO replyingTo;   // reply being answered, null for a top-level comment
+    private boolean postingReply;           // a reply is being saved; further clicks are ignored
+
+    // Deeper answers stop indenting so long threads stay readable in the modal
+    private static final int MAX_INDENT_DEPTH = 6;
+
+    // Top-level replies fetched per page; answers are fetched when a thread is expanded
+    private static final int REPLY_PAGE_SIZE = 20;
+
+    private String nextRepliesCursor;    // null once every top-level reply is shown
+    private boolean loadingReplies;
+    private int repliesGeneration;       // bumped on reload so late results from the old list are dropped
+    private final Set<Integer> expandedReplies = new HashSet<>();   // threads to re-open after a reload
+    private VBox repliesFooter;          // "load more" button or status label below the list
+
+    @FXML
+    private void initialize() {
+        // Fetch the next page once the list is scrolled to the bottom
+        repliesScrollPane.vvalueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= repliesScrollPane.getVmax() && nextRepliesCursor != null) {
+                loadReplyPage();
+            }
+        });
+    }
 
     /**
      * Sets the parent controller to allow closing the modal and refreshing
@@ -71,6 +105,7 @@ public class ReplyController {
     public void setPostData(PostDAO.PostDTO postData) {
         this.postData = postData;
         this.postId = postData.postId;
+        expandedReplies.clear();
         displayPost();
         loadReplies();
     }
@@ -133,33 +168,162 @@ public class ReplyController {
     }
 
     /**
-     * Loads and displays replies for the current post
+     * Clears the replies and loads the first page of top-level replies for the current post
      */
     private void loadReplies() {
+        repliesGeneration++;
+        loadingReplies = false;
+        nextRepliesCursor = null;
         repliesContainer.getChildren().clear();
+        repliesFooter = new VBox();
+        repliesContainer.getChildren().add(repliesFooter);
+        loadReplyPage();
+    }
+
+    /**
+     * Fetches the next page of top-level replies in the background and appends it to the list
+     */
+    private void loadReplyPage() {
+        if (loadingReplies) {
+            return;
+        }
+        loadingReplies = true;
+        int generation = repliesGeneration;
+        String cursor = nextRepliesCursor;
+        boolean firstPage = cursor == null;
+        setRepliesFooter(footerLabel("Loading comments..."));
+
+        data.getRootReplies(postId, cursor, REPLY_PAGE_SIZE).whenComplete((page, e) -> {
+            if (generation != repliesGeneration) {
+                return;
+            }
+            loadingReplies = false;
+            if (e != null) {
+                System.out.println("Error loading replies: " + DataService.cause(e).getMessage());
+                setRepliesFooter(loadMoreButton("Could not load comments. Try again"));
+                return;
+            }
+            nextRepliesCursor = page.nextCursor;
 
-        try {
-            var replies = replyDAO.getRepliesByPostId(postId);
+            int footerIndex = repliesContainer.getChildren().indexOf(repliesFooter);
+            for (ReplyDAO.ReplyDTO reply : page.replies) {
+                repliesContainer.getChildren().add(footerIndex++, createReplyNode(reply));
+            }
 
-            if (replies.isEmpty()) {
+            if (firstPage && page.replies.isEmpty()) {
                 Label noRepliesLabel = new Label("No comments yet. Be the first to comment!");
                 noRepliesLabel.setStyle("-fx-text-fill: #555555; -fx-font-size: 14; -fx-padding: 16;");
-                repliesContainer.getChildren().add(noRepliesLabel);
+                setRepliesFooter(noRepliesLabel);
+            } else if (nextRepliesCursor != null) {
+                setRepliesFooter(loadMoreButton("Load more comments"));
             } else {
-                for (ReplyDAO.ReplyDTO reply : replies) {
-                    createReplyCard(reply);
-                }
+                setRepliesFooter(null);
+            }
+        });
+    }
+
+    private void setRepliesFooter(Node content) {
+        repliesFooter.getChildren().clear();
+        if (content != null) {
+            repliesFooter.getChildren().add(content);
+        }
+    }
+
+    private Label footerLabel(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-text-fill: #555555; -fx-font-size: 12; -fx-padding: 8;");
+        return label;
+    }
+
+    private Button loadMoreButton(String text) {
+        Button button = new Button(text);
+        button.setStyle("-fx-background-color: transparent; -fx-text-fill: #7678ED; -fx-font-size: 12; -fx-font-weight: bold; -fx-cursor: hand;");
+        button.setOnAction(e -> loadReplyPage());
+        return button;
+    }
+
+    /**
+     * Creates a reply card followed by its answers. Answers that have not been
+     * fetched yet are collapsed behind a "View replies" link.
+     */
+    private VBox createReplyNode(ReplyDAO.ReplyDTO reply) {
+        VBox node = new VBox(8);
+        node.getChildren().add(createReplyCard(reply));
+
+        if (!reply.children.isEmpty()) {
+            node.getChildren().add(createChildrenBox(reply.children, reply.depth));
+        } else if (reply.replyCount > 0) {
+            Label toggle = new Label(viewRepliesText(reply.replyCount));
+            toggle.setStyle("-fx-text-fill: #7678ED; -fx-font-size: 11; -fx-font-weight: bold; -fx-cursor: hand; -fx-padding: 0 0 0 20;");
+            toggle.setOnMouseClicked(e -> expandReplies(reply, node, toggle));
+            node.getChildren().add(toggle);
+
+            if (expandedReplies.contains(reply.replyId)) {
+                expandReplies(reply, node, toggle);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Fetches the answers below a top-level reply in the background and shows them under it.
+     * Once fetched, the link just hides and shows them again.
+     */
+    private void expandReplies(ReplyDAO.ReplyDTO reply, VBox node, Label toggle) {
+        toggle.setText("Loading replies...");
+        toggle.setOnMouseClicked(null);
+        int generation = repliesGeneration;
+
+        data.getSubThread(reply).whenComplete((children, e) -> {
+            if (generation != repliesGeneration) {
+                return;
+            }
+            if (e != null) {
+                toggle.setText("Could not load replies. Try again");
+                toggle.setOnMouseClicked(ev -> expandReplies(reply, node, toggle));
+                return;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Error loading replies: " + e.getMessage());
+            expandedReplies.add(reply.replyId);
+            VBox childrenBox = createChildrenBox(children, reply.depth);
+            node.getChildren().add(childrenBox);
+
+            toggle.setText("Hide replies");
+            toggle.setOnMouseClicked(ev -> {
+                boolean show = !childrenBox.isVisible();
+                childrenBox.setVisible(show);
+                childrenBox.setManaged(show);
+                toggle.setText(show ? "Hide replies" : viewRepliesText(reply.replyCount));
+                if (show) {
+                    expandedReplies.add(reply.replyId);
+                } else {
+                    expandedReplies.remove(reply.replyId);
+                }
+            });
+        });
+    }
+
+    /**
+     * Creates the answers to a reply, indented under a thread line
+     */
+    private VBox createChildrenBox(List<ReplyDAO.ReplyDTO> children, int parentDepth) {
+        VBox childrenBox = new VBox(8);
+        if (parentDepth < MAX_INDENT_DEPTH) {
+            childrenBox.setStyle("-fx-padding: 0 0 0 20; -fx-border-color: #E0E0E0; -fx-border-width: 0 0 0 2;");
         }
+        for (ReplyDAO.ReplyDTO child : children) {
+            childrenBox.getChildren().add(createReplyNode(child));
+        }
+        return childrenBox;
+    }
+
+    private String viewRepliesText(int count) {
+        return count == 1 ? "View 1 reply" : "View " + count + " replies";
     }
 
     /**
      * Creates a reply card UI element
      */
-    private void createReplyCard(ReplyDAO.ReplyDTO reply) {
+    private HBox createReplyCard(ReplyDAO.ReplyDTO reply) {
         HBox replyCard = new HBox(8);
         replyCard.setStyle("-fx-background-color: white; -fx-background-radius: 4; -fx-padding: 12; -fx-border-color: #E0E0E0; -fx-border-radius: 4;");
 
@@ -190,9 +354,36 @@ public class ReplyController {
         // Reply content with hyperlink support
         TextFlow contentFlow = createTextFlowWithLinks(reply.content);
 
-        contentBox.getChildren().addAll(authorTimeBox, contentFlow);
+        // Answer this reply
+        Label replyLink = new Label("Reply");
+        replyLink.setStyle("-fx-text-fill: #7678ED; -fx-font-size: 11; -fx-font-weight: bold; -fx-cursor: hand;");
+        replyLink.setOnMouseClicked(e -> startReplyTo(reply));
+
+        contentBox.getChildren().addAll(authorTimeBox, contentFlow, replyLink);
         replyCard.getChildren().addAll(voteBox, contentBox);
-        repliesContainer.getChildren().add(replyCard);
+        return replyCard;
+    }
+
+    /**
+     * Opens the editor to answer a specific reply
+     */
+    private void startReplyTo(ReplyDAO.ReplyDTO reply) {
+        replyingTo = reply;
+        replyEditorTitle.setText("Reply to " + reply.author);
+        replyEditorSection.setVisible(true);
+        replyEditorSection.setManaged(true);
+        replyTextArea.requestFocus();
+    }
+
+    /**
+     * Hides the editor and goes back to commenting on the post itself
+     */
+    private void closeEditor() {
+        replyTextArea.clear();
+        replyingTo = null;
+        replyEditorTitle.setText("Add a comment");
+        replyEditorSection.setVisible(false);
+        replyEditorSection.setManaged(false);
     }
 
     /**
@@ -277,22 +468,36 @@ public class ReplyController {
             return;
         }
 
-        try {
-            if (currentUser == null) {
-                System.out.println("User not logged in. Please log in again.");
+        if (currentUser == null) {
+            System.out.println("User not logged in. Please log in again.");
+            return;
+        }
+        if (postingReply) {
+            return;
+        }
+
+        int userId = currentUser.getUserId();
+        Integer parentReplyId = replyingTo != null ? replyingTo.replyId : null;
+        ReplyDAO.ReplyDTO answered = replyingTo;
+        postingReply = true;
+
+        data.createReply(postId, userId, replyText, parentReplyId).whenComplete((done, e) -> {
+            postingReply = false;
+            if (e != null) {
+                System.out.println("Error posting reply: " + DataService.cause(e).getMessage());
                 return;
             }
-            
-            int userId = currentUser.getUserId();
-            replyDAO.createReply(postId, userId, replyText);
             System.out.println("Reply posted successfully.");
 
-            // Clear the text area
-            replyTextArea.clear();
+            // Keep the answered thread open after the reload; its top-level reply is the first path segment
+            if (answered != null && answered.path != null) {
+                int slash = answered.path.indexOf('/');
+                String rootSegment = slash < 0 ? answered.path : answered.path.substring(0, slash);
+                expandedReplies.add(Integer.parseInt(rootSegment));
+            }
 
-            // Hide the editor section after posting
-            replyEditorSection.setVisible(false);
-            replyEditorSection.setManaged(false);
+            // Clear the text area and hide the editor section after posting
+            closeEditor();
 
             // Reload replies to show the new one
             loadReplies();
@@ -301,15 +506,15 @@ public class ReplyController {
             if (parentController != null) {
                 parentController.loadPostsFromDB();
             }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Error posting reply: " + e.getMessage());
-        }
+        });
     }
 
     @FXML
     private void onAddCommentClicked() {
+        // A top-level comment, not an answer to a reply
+        replyingTo = null;
+        replyEditorTitle.setText("Add a comment");
+
         // Toggle reply editor visibility
         boolean isVisible = replyEditorSection.isVisible();
         replyEditorSection.setVisible(!isVisible);
@@ -323,10 +528,8 @@ public class ReplyController {
 
     @FXML
     private void onCancelClicked() {
-        replyTextArea.clear();
         // Hide the editor section
-        replyEditorSection.setVisible(false);
-        replyEditorSection.setManaged(false);
+        closeEditor();
     }
 
     @FXML
@@ -357,13 +560,13 @@ public class ReplyController {
      * Navigates to settings view for a given username
      */
     private void navigateToUserSettings(String username) {
-        UserDAO userDAO = new UserDAO();
-        User user = userDAO.getUserByUsername(username);
-        if (user != null && currentUser != null) {
-            // Pass both logged-in user and viewed user
-            SceneManager.switchToSettings(currentUser, user);
-        } else {
-            System.out.println("User not found: " + username);
-        }
+        data.getUserByUsername(username).thenAccept(user -> {
+            if (user != null && currentUser != null) {
+                // Pass both logged-in user and viewed user
+                SceneManager.switchToSettings(currentUser, user);
+            } else {
+                System.out.println("User not found: " + username);
+            }
+        });
     }
 }
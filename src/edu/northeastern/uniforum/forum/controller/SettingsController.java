@@ -1,9 +1,9 @@
 package edu.northeastern.uniforum.forum.controller;
 
 import application.Main;
-import edu.northeastern.uniforum.forum.dao.UserDAO;
 import edu.northeastern.uniforum.forum.model.User;
-import edu.northeastern.uniforum.forum.util.PasswordUtil;
+import edu.northeastern.uniforum.forum.util.CachedView;
+import edu.northeastern.uniforum.forum.util.DataService;
 import edu.northeastern.uniforum.forum.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.ContextMenu;
@@ -16,7 +16,9 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
-public class SettingsController {
+import java.util.concurrent.CompletableFuture;
+
+public class SettingsController implements CachedView {
     
     @FXML private TextField usernameField;
     @FXML private TextField emailField;
@@ -37,8 +39,33 @@ public class SettingsController {
     
     private User currentUser; // The logged-in user
     private User viewedUser; // The user whose profile is being viewed
-    private UserDAO userDAO = new UserDAO();
+    private boolean saving;   // the settings are being saved; further clicks are ignored
+    private int visit;        // bumped by reset, so a save finishing after the view was reused is dropped
+    private final DataService data = new DataService();
     
+    /**
+     * Forgets the previous visit's users, message and typed passwords; initData refills the fields
+     */
+    @Override
+    public void reset() {
+        visit++;
+        saving = false;
+        currentUser = null;
+        viewedUser = null;
+        if (messageLabel != null) {
+            messageLabel.setText("");
+        }
+        if (currentPasswordField != null) {
+            currentPasswordField.clear();
+        }
+        if (newPasswordField != null) {
+            newPasswordField.clear();
+        }
+        if (confirmPasswordField != null) {
+            confirmPasswordField.clear();
+        }
+    }
+
     public void initData(User user) {
         this.viewedUser = user;
         // If currentUser is not set, assume user is viewing their own profile
@@ -183,7 +210,6 @@ public class SettingsController {
         
         // Check if password is being changed
         boolean changingPassword = !currentPassword.isEmpty() || !newPassword.isEmpty() || !confirmPassword.isEmpty();
-        String newPasswordHash = null;
         
         if (changingPassword) {
             if (currentPassword.isEmpty() || newPassword.isEmpty() || confirmPassword.isEmpty()) {
@@ -193,14 +219,6 @@ public class SettingsController {
                 return;
             }
             
-            // Verify current password
-            if (!PasswordUtil.checkPassword(currentPassword, viewedUser.getPasswordHash())) {
-                if (messageLabel != null) {
-                    messageLabel.setText("Current password is incorrect.");
-                }
-                return;
-            }
-            
             // Check if new passwords match
             if (!newPassword.equals(confirmPassword)) {
                 if (messageLabel != null) {
@@ -216,9 +234,6 @@ public class SettingsController {
                 }
                 return;
             }
-            
-            // Hash the new password
-            newPasswordHash = PasswordUtil.hashPassword(newPassword);
         }
         
         // Check if fields changed
@@ -228,17 +243,6 @@ public class SettingsController {
         boolean githubChanged = !newGithubUrl.equals(viewedUser.getGithubUrl() != null ? viewedUser.getGithubUrl() : "");
         boolean departmentChanged = !newDepartment.equals(viewedUser.getDepartment() != null ? viewedUser.getDepartment() : "");
         
-        // If username changed, check if new username already exists
-        if (usernameChanged) {
-            User existingUser = userDAO.getUserByUsername(newUsername);
-            if (existingUser != null && existingUser.getUserId() != viewedUser.getUserId()) {
-                if (messageLabel != null) {
-                    messageLabel.setText("Username already exists. Please choose a different username.");
-                }
-                return;
-            }
-        }
-        
         // Only allow updates if viewing own profile
         if (currentUser == null || viewedUser == null || currentUser.getUserId() != viewedUser.getUserId()) {
             if (messageLabel != null) {
@@ -247,56 +251,114 @@ public class SettingsController {
             return;
         }
         
-        // Update user in database
-        boolean updateSuccess = userDAO.updateUser(
-            viewedUser.getUserId(),
-            usernameChanged ? newUsername : null,
-            emailChanged ? newEmail : null,
-            newPasswordHash,
-            linkedinChanged ? newLinkedinUrl : null,
-            githubChanged ? newGithubUrl : null,
-            departmentChanged ? newDepartment : null
-        );
-        
-        if (updateSuccess) {
-            // Update viewed user object with new values
-            String updatedUsername = usernameChanged ? newUsername : viewedUser.getUsername();
-            String updatedEmail = emailChanged ? newEmail : viewedUser.getEmail();
-            String updatedPasswordHash = newPasswordHash != null ? newPasswordHash : viewedUser.getPasswordHash();
-            String updatedLinkedinUrl = linkedinChanged ? newLinkedinUrl : (viewedUser.getLinkedinUrl() != null ? viewedUser.getLinkedinUrl() : "");
-            String updatedGithubUrl = githubChanged ? newGithubUrl : (viewedUser.getGithubUrl() != null ? viewedUser.getGithubUrl() : "");
-            String updatedDepartment = departmentChanged ? newDepartment : (viewedUser.getDepartment() != null ? viewedUser.getDepartment() : "");
-            
-            viewedUser = new User(
-                viewedUser.getUserId(),
-                updatedUsername,
-                updatedPasswordHash,
-                updatedEmail,
-                updatedLinkedinUrl,
-                updatedGithubUrl,
-                updatedDepartment
-            );
-            
-            // Update username label in UI
-            if (usernameLabel != null) {
-                usernameLabel.setText(updatedUsername);
+        if (saving) {
+            return;
+        }
+        saving = true;
+        int generation = visit;
+        User user = viewedUser;
+
+        // Verify the current password and hash the new one on the hashing pool, off the JavaFX thread
+        CompletableFuture<Boolean> passwordVerified = changingPassword
+                ? data.checkPassword(currentPassword, user.getPasswordHash())
+                : CompletableFuture.completedFuture(true);
+        passwordVerified.thenCompose(verified -> {
+            if (generation != visit) {
+                return CompletableFuture.completedFuture(null);
             }
-            
-            if (messageLabel != null) {
-                messageLabel.setStyle("-fx-text-fill: #28a745; -fx-font-weight: bold;");
-                messageLabel.setText("Settings saved successfully!");
+            if (!verified) {
+                if (messageLabel != null) {
+                    messageLabel.setText("Current password is incorrect.");
+                }
+                return CompletableFuture.completedFuture(null);
             }
             
-            // Clear password fields
-            currentPasswordField.clear();
-            newPasswordField.clear();
-            confirmPasswordField.clear();
-        } else {
-            if (messageLabel != null) {
-                messageLabel.setStyle("-fx-text-fill: #F35B04; -fx-font-weight: bold;");
-                messageLabel.setText("Error saving settings. Please try again.");
+            CompletableFuture<String> newPasswordHash = changingPassword
+                    ? data.hashPassword(newPassword)
+                    : CompletableFuture.completedFuture(null);
+            
+            // If username changed, check if new username already exists
+            CompletableFuture<User> existingUser = usernameChanged
+                    ? data.getUserByUsername(newUsername)
+                    : CompletableFuture.completedFuture(null);
+            return newPasswordHash.thenCompose(passwordHash -> existingUser.thenCompose(existing -> {
+                if (generation != visit) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (existing != null && existing.getUserId() != user.getUserId()) {
+                    if (messageLabel != null) {
+                        messageLabel.setText("Username already exists. Please choose a different username.");
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+                
+                // Update user in database
+                return data.updateUser(
+                    user.getUserId(),
+                    usernameChanged ? newUsername : null,
+                    emailChanged ? newEmail : null,
+                    passwordHash,
+                    linkedinChanged ? newLinkedinUrl : null,
+                    githubChanged ? newGithubUrl : null,
+                    departmentChanged ? newDepartment : null
+                ).thenAccept(updateSuccess -> {
+                    if (generation != visit) {
+                        return;
+                    }
+                    if (updateSuccess) {
+                        // Update viewed user object with new values
+                        String updatedUsername = usernameChanged ? newUsername : user.getUsername();
+                        String updatedEmail = emailChanged ? newEmail : user.getEmail();
+                        String updatedPasswordHash = passwordHash != null ? passwordHash : user.getPasswordHash();
+                        String updatedLinkedinUrl = linkedinChanged ? newLinkedinUrl : (user.getLinkedinUrl() != null ? user.getLinkedinUrl() : "");
+                        String updatedGithubUrl = githubChanged ? newGithubUrl : (user.getGithubUrl() != null ? user.getGithubUrl() : "");
+                        String updatedDepartment = departmentChanged ? newDepartment : (user.getDepartment() != null ? user.getDepartment() : "");
+                        
+                        viewedUser = new User(
+                            user.getUserId(),
+                            updatedUsername,
+                            updatedPasswordHash,
+                            updatedEmail,
+                            updatedLinkedinUrl,
+                            updatedGithubUrl,
+                            updatedDepartment
+                        );
+                        
+                        // Update username label in UI
+                        if (usernameLabel != null) {
+                            usernameLabel.setText(updatedUsername);
+                        }
+                        
+                        if (messageLabel != null) {
+                            messageLabel.setStyle("-fx-text-fill: #28a745; -fx-font-weight: bold;");
+                            messageLabel.setText("Settings saved successfully!");
+                        }
+                        
+                        // Clear password fields
+                        currentPasswordField.clear();
+                        newPasswordField.clear();
+                        confirmPasswordField.clear();
+                    } else {
+                        if (messageLabel != null) {
+                            messageLabel.setStyle("-fx-text-fill: #F35B04; -fx-font-weight: bold;");
+                            messageLabel.setText("Error saving settings. Please try again.");
+                        }
+                    }
+                });
+            }));
+        }).whenComplete((done, e) -> {
+            if (generation != visit) {
+                return;   // the view was reused for another visit while saving
             }
-        }
+            saving = false;
+            if (e != null) {
+                System.err.println("Error saving settings: " + DataService.cause(e).getMessage());
+                if (messageLabel != null) {
+                    messageLabel.setStyle("-fx-text-fill: #F35B04; -fx-font-weight: bold;");
+                    messageLabel.setText("Error saving settings. Please try again.");
+                }
+            }
+        });
     }
     
     @FXML
@@ -1,12 +1,23 @@
 package edu.northeastern.uniforum.forum.dao;
 
 import edu.northeastern.uniforum.db.Database;
+import edu.northeastern.uniforum.forum.search.SearchIndex;
+import edu.northeastern.uniforum.forum.search.Suggestions;
 import edu.northeastern.uniforum.forum.util.TimeUtil;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -14,22 +25,8 @@ import java.sql.SQLException;
 
 public class PostDAO {
 
-    public static class PostDTO {
-        public int postId;
-        public String community;
-        public String author;
-        public String timeAgo;
-        public String title;
-        public String content;
-        public String tag;
-        public int upvotes;
-        public int comments;
-    }
-
-    public List<PostDTO> getAllPosts() throws SQLException {
-        List<PostDTO> list = new ArrayList<>();
-
-        String sql = """
+    // Columns and joins shared by every feed query
+    private static final String POST_SELECT = """
             SELECT p.post_id,
                    p.title,
                    p.content,
@@ -42,33 +39,195 @@ public class PostDAO {
             FROM Posts p
             JOIN Users u       ON p.user_id = u.user_id
             JOIN Communities c ON p.community_id = c.community_id
+            """;
+
+    // Feed queries (package-private so QueryPlanVerifier can check them at startup)
+    static final String ALL_POSTS_SQL =
+            POST_SELECT + "ORDER BY p.created_time DESC";
+
+    static final String ALL_POSTS_BY_LIKES_SQL =
+            POST_SELECT + "ORDER BY p.number_of_likes DESC, p.post_id DESC";
+
+    // EXISTS lets SQLite walk idx_posts_created_time in order instead of sorting the joined rows
+    static final String JOINED_COMMUNITY_POSTS_SQL = POST_SELECT + """
+            WHERE EXISTS (SELECT 1 FROM Community_User cu
+                          WHERE cu.community_id = p.community_id AND cu.user_id = ?)
             ORDER BY p.created_time DESC
             """;
 
+    static final String POST_BY_ID_SQL =
+            POST_SELECT + "WHERE p.post_id = ?";
+
+    static final String ALL_COMMUNITIES_SQL = """
+            SELECT community_id, community_name
+            FROM Communities
+            ORDER BY community_name
+            """;
+
+    static final String ALL_TAGS_SQL = """
+            SELECT DISTINCT tag
+            FROM Posts
+            WHERE tag IS NOT NULL AND tag != ''
+            ORDER BY tag
+            """;
+
+    static final String USER_VOTE_SQL =
+            "SELECT vote_type FROM Post_Votes WHERE post_id = ? AND user_id = ?";
+
+    // SQLite builds before 3.32 allow at most 999 bind parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    // On a repeat vote the SET expressions all see the row's old values, so
+    // previous_vote_type receives the vote being replaced
+    static final String CAST_VOTE_SQL = """
+            INSERT INTO Post_Votes (post_id, user_id, vote_type, previous_vote_type)
+            VALUES (?, ?, ?, 0)
+            ON CONFLICT (post_id, user_id) DO UPDATE SET
+                previous_vote_type = vote_type,
+                vote_type = CASE WHEN vote_type = excluded.vote_type THEN 0 ELSE excluded.vote_type END
+            RETURNING vote_type, previous_vote_type
+            """;
+
+    static final String VOTE_COUNT_SQL =
+            "SELECT number_of_likes FROM Posts WHERE post_id = ?";
+
+    public static class PostDTO {
+        public int postId;
+        public String community;
+        public String author;
+        public String timeAgo;
+        public String title;
+        public String content;
+        public String tag;
+        public int upvotes;
+        public int comments;
+    }
+
+    /**
+     * Outcome of a vote: the post's new count and the user's vote after the click
+     * (1 upvoted, -1 downvoted, 0 no vote)
+     */
+    public static class VoteResult {
+        public int voteCount;
+        public int userVote;
+    }
+
+    /**
+     * One page of a feed. nextCursor is an opaque token for the following page,
+     * or null when this is the last page.
+     */
+    public static class PostPage {
+        public List<PostDTO> posts = new ArrayList<>();
+        public String nextCursor;
+    }
+
+    // Recently opened posts, shared by every PostDAO instance (least recently used evicted first).
+    // Entries are dropped whenever the post's votes or replies change.
+    private static final int POST_CACHE_SIZE = 64;
+    private static final Map<Integer, CachedPost> postCache =
+            new LinkedHashMap<>(POST_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, CachedPost> eldest) {
+                    return size() > POST_CACHE_SIZE;
+                }
+            };
+
+    private static final class CachedPost {
+        final PostDTO post;
+        final LocalDateTime created;
+
+        CachedPost(PostDTO post, LocalDateTime created) {
+            this.post = post;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Maps the current row of a POST_SELECT query to a PostDTO
+     */
+    private PostDTO mapPost(ResultSet rs) throws SQLException {
+        PostDTO dto = new PostDTO();
+        dto.postId    = rs.getInt("post_id");
+        dto.title     = rs.getString("title");
+        dto.content   = rs.getString("content");
+        dto.upvotes   = rs.getInt("number_of_likes") + VoteAggregator.pendingDelta(dto.postId);
+        dto.comments  = rs.getInt("number_of_replies");
+        dto.author    = rs.getString("user_name");
+        dto.community = rs.getString("community_name");
+        dto.tag       = rs.getString("tag");
+
+        Timestamp ts = rs.getTimestamp("created_time");
+        if (ts != null) {
+            LocalDateTime created = ts.toLocalDateTime();
+            dto.timeAgo = TimeUtil.timeAgo(created);
+        } else {
+            dto.timeAgo = "unknown";
+        }
+        return dto;
+    }
+
+    /**
+     * Gets a single post by its id, from the recently viewed cache when possible
+     * @return the post, or null if it does not exist
+     */
+    public PostDTO getPostById(int postId) throws SQLException {
+        CachedPost cached;
+        synchronized (postCache) {
+            cached = postCache.get(postId);
+        }
+        if (cached == null) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(POST_BY_ID_SQL)) {
+                ps.setInt(1, postId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Timestamp ts = rs.getTimestamp("created_time");
+                    cached = new CachedPost(mapPost(rs), ts != null ? ts.toLocalDateTime() : null);
+                }
+            }
+            synchronized (postCache) {
+                postCache.put(postId, cached);
+            }
+        }
+        return copyOf(cached);
+    }
+
+    /**
+     * Drops a post from the recently viewed cache after its counts change
+     */
+    static void evictCachedPost(int postId) {
+        synchronized (postCache) {
+            postCache.remove(postId);
+        }
+    }
+
+    // Callers get their own copy, with "time ago" worked out afresh
+    private static PostDTO copyOf(CachedPost cached) {
+        PostDTO source = cached.post;
+        PostDTO dto = new PostDTO();
+        dto.postId    = source.postId;
+        dto.title     = source.title;
+        dto.content   = source.content;
+        dto.upvotes   = source.upvotes;
+        dto.comments  = source.comments;
+        dto.author    = source.author;
+        dto.community = source.community;
+        dto.tag       = source.tag;
+        dto.timeAgo   = cached.created != null ? TimeUtil.timeAgo(cached.created) : "unknown";
+        return dto;
+    }
+
+    public List<PostDTO> getAllPosts() throws SQLException {
+        List<PostDTO> list = new ArrayList<>();
+
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(ALL_POSTS_SQL);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                PostDTO dto = new PostDTO();
-                dto.postId   = rs.getInt("post_id");
-                dto.title     = rs.getString("title");
-                dto.content   = rs.getString("content");
-                dto.upvotes   = rs.getInt("number_of_likes");
-                dto.comments  = rs.getInt("number_of_replies");
-                dto.author    = rs.getString("user_name");
-                dto.community = rs.getString("community_name");
-                dto.tag = rs.getString("tag");
-
-                Timestamp ts = rs.getTimestamp("created_time");
-                if (ts != null) {
-                    LocalDateTime created = ts.toLocalDateTime();
-                    dto.timeAgo = TimeUtil.timeAgo(created);
-                } else {
-                    dto.timeAgo = "unknown";
-                }
-
-                list.add(dto);
+                list.add(mapPost(rs));
             }
         }
 
@@ -82,46 +241,12 @@ public class PostDAO {
     public List<PostDTO> getAllPostsSortedByLikes() throws SQLException {
         List<PostDTO> list = new ArrayList<>();
 
-        String sql = """
-            SELECT p.post_id,
-                   p.title,
-                   p.content,
-                   p.tag,
-                   p.number_of_likes,
-                   p.number_of_replies,
-                   p.created_time,
-                   u.user_name,
-                   c.community_name
-            FROM Posts p
-            JOIN Users u       ON p.user_id = u.user_id
-            JOIN Communities c ON p.community_id = c.community_id
-            ORDER BY p.number_of_likes DESC, p.created_time DESC
-            """;
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(ALL_POSTS_BY_LIKES_SQL);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                PostDTO dto = new PostDTO();
-                dto.postId   = rs.getInt("post_id");
-                dto.title     = rs.getString("title");
-                dto.content   = rs.getString("content");
-                dto.upvotes   = rs.getInt("number_of_likes");
-                dto.comments  = rs.getInt("number_of_replies");
-                dto.author    = rs.getString("user_name");
-                dto.community = rs.getString("community_name");
-                dto.tag = rs.getString("tag");
-
-                Timestamp ts = rs.getTimestamp("created_time");
-                if (ts != null) {
-                    LocalDateTime created = ts.toLocalDateTime();
-                    dto.timeAgo = TimeUtil.timeAgo(created);
-                } else {
-                    dto.timeAgo = "unknown";
-                }
-
-                list.add(dto);
+                list.add(mapPost(rs));
             }
         }
 
@@ -135,48 +260,12 @@ public class PostDAO {
     public List<PostDTO> getPostsFromJoinedCommunities(int userId) throws SQLException {
         List<PostDTO> list = new ArrayList<>();
 
-        String sql = """
-            SELECT p.post_id,
-                   p.title,
-                   p.content,
-                   p.tag,
-                   p.number_of_likes,
-                   p.number_of_replies,
-                   p.created_time,
-                   u.user_name,
-                   c.community_name
-            FROM Posts p
-            JOIN Users u       ON p.user_id = u.user_id
-            JOIN Communities c ON p.community_id = c.community_id
-            JOIN Community_User cu ON c.community_id = cu.community_id
-            WHERE cu.user_id = ?
-            ORDER BY p.created_time DESC
-            """;
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(JOINED_COMMUNITY_POSTS_SQL)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    PostDTO dto = new PostDTO();
-                    dto.postId   = rs.getInt("post_id");
-                    dto.title     = rs.getString("title");
-                    dto.content   = rs.getString("content");
-                    dto.upvotes   = rs.getInt("number_of_likes");
-                    dto.comments  = rs.getInt("number_of_replies");
-                    dto.author    = rs.getString("user_name");
-                    dto.community = rs.getString("community_name");
-                    dto.tag = rs.getString("tag");
-
-                    Timestamp ts = rs.getTimestamp("created_time");
-                    if (ts != null) {
-                        LocalDateTime created = ts.toLocalDateTime();
-                        dto.timeAgo = TimeUtil.timeAgo(created);
-                    } else {
-                        dto.timeAgo = "unknown";
-                    }
-
-                    list.add(dto);
+                    list.add(mapPost(rs));
                 }
             }
         }
@@ -184,6 +273,175 @@ public class PostDAO {
         System.out.println("DAO: loaded posts from joined communities count = " + list.size());
         return list;
     }
+
+    /**
+     * Gets one page of the posts matching a query, filtered and ordered by SQLite
+     * @param cursor nextCursor of the previous page of the same query, or null for the first page
+     */
+    public PostPage findPosts(PostQuery query, String cursor) throws SQLException {
+        return findPosts(query, cursor, null);
+    }
+
+    /**
+     * Like {@link #findPosts(PostQuery, String)}, but stops with an SQLException once the canceller is cancelled
+     * @param canceller what may cancel the query while it runs, or null
+     */
+    public PostPage findPosts(PostQuery query, String cursor, QueryCanceller canceller) throws SQLException {
+        String cursorKind = cursorKind(query.getSort());
+        String[] key = decodeCursor(cursor, cursorKind);
+        List<Object> params = new ArrayList<>();
+        String sql = compile(query, key, params);
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            if (canceller == null) {
+                return readPage(ps, query.getLimit(), cursorKind);
+            }
+            canceller.begin(ps);
+            try {
+                return readPage(ps, query.getLimit(), cursorKind);
+            } finally {
+                canceller.end();
+            }
+        }
+    }
+
+    /**
+     * Compiles a query into one SQL statement, adding its bind values to params in order.
+     * Keyset pages compare (sort key, post_id) so each page is an index range read
+     * no matter how deep the user scrolls.
+     * @param key {sort value, post id} of the last row on the previous page, or null for the first page
+     */
+    static String compile(PostQuery query, String[] key, List<Object> params) throws SQLException {
+        List<String> where = new ArrayList<>();
+
+        // EXISTS lets SQLite walk the sort index in order instead of sorting the joined rows
+        if (query.getJoinedByUserId() != null) {
+            where.add("EXISTS (SELECT 1 FROM Community_User cu WHERE cu.community_id = p.community_id AND cu.user_id = ?)");
+            params.add(query.getJoinedByUserId());
+        }
+        if (query.getCommunity() != null) {
+            where.add("p.community_id = (SELECT community_id FROM Communities WHERE community_name = ?)");
+            params.add(query.getCommunity());
+        }
+        if (query.getTag() != null) {
+            where.add("p.tag = ?");
+            params.add(query.getTag());
+        }
+        if (query.getKeyword() != null) {
+            String match = SearchDAO.matchQuery(query.getKeyword());
+            if (match != null && SearchDAO.isFullTextAvailable()) {
+                // Full-text index lookup over posts and their replies; the sort index still supplies the order
+                where.add("p.post_id IN (" + SearchDAO.MATCHING_POSTS_SQL + ")");
+                params.add(match);
+                params.add(match);
+            } else if (match != null) {
+                // No FTS5 in this SQLite build: the in-process index finds the ids,
+                // passed as one JSON array instead of one parameter per id
+                where.add("p.post_id IN (SELECT value FROM json_each(?))");
+                params.add(Arrays.toString(SearchIndex.search(query.getKeyword())));
+            } else {
+                // Nothing the index can search for (only punctuation), so fall back to a substring match
+                String pattern = "%" + escapeLike(query.getKeyword()) + "%";
+                where.add("(p.title LIKE ? ESCAPE '\\' OR p.content LIKE ? ESCAPE '\\')");
+                params.add(pattern);
+                params.add(pattern);
+            }
+        }
+
+        boolean byTime = query.getSort() == PostQuery.Sort.LATEST || query.getSort() == PostQuery.Sort.OLDEST;
+        boolean descending = query.getSort() == PostQuery.Sort.LATEST || query.getSort() == PostQuery.Sort.MOST_LIKED;
+        String sortColumn = byTime ? "p.created_time" : "p.number_of_likes";
+        String direction = descending ? "DESC" : "ASC";
+
+        if (key != null) {
+            where.add("(" + sortColumn + ", p.post_id) " + (descending ? "<" : ">") + " (?, ?)");
+            params.add(byTime ? key[0] : Integer.parseInt(key[0]));
+            params.add(Integer.parseInt(key[1]));
+        }
+
+        StringBuilder sql = new StringBuilder(POST_SELECT);
+        if (!where.isEmpty()) {
+            sql.append("WHERE ").append(String.join("\n  AND ", where)).append('\n');
+        }
+        sql.append("ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", p.post_id ").append(direction).append('\n');
+        sql.append("LIMIT ?");
+        // One extra row tells readPage whether another page exists
+        params.add(query.getLimit() + 1);
+        return sql.toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Cursor kinds: a cursor from one ordering must not be replayed against another
+    private static final String CURSOR_LATEST = "t";
+    private static final String CURSOR_OLDEST = "o";
+    private static final String CURSOR_MOST_LIKED = "l";
+    private static final String CURSOR_LEAST_LIKED = "m";
+
+    private static String cursorKind(PostQuery.Sort sort) {
+        return switch (sort) {
+            case LATEST -> CURSOR_LATEST;
+            case OLDEST -> CURSOR_OLDEST;
+            case MOST_LIKED -> CURSOR_MOST_LIKED;
+            case LEAST_LIKED -> CURSOR_LEAST_LIKED;
+        };
+    }
+
+    /**
+     * Reads up to pageSize rows. The query asks for one extra row, which only
+     * tells us whether another page exists.
+     */
+    private PostPage readPage(PreparedStatement ps, int pageSize, String cursorKind) throws SQLException {
+        boolean byTime = CURSOR_LATEST.equals(cursorKind) || CURSOR_OLDEST.equals(cursorKind);
+        PostPage page = new PostPage();
+        String lastKey = null;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                if (page.posts.size() == pageSize) {
+                    page.nextCursor = encodeCursor(cursorKind, lastKey);
+                    break;
+                }
+                PostDTO dto = mapPost(rs);
+                // The stored count, as the query compares it; dto.upvotes also counts buffered votes
+                lastKey = (byTime ? rs.getString("created_time") : String.valueOf(rs.getInt("number_of_likes")))
+                        + "|" + dto.postId;
+                page.posts.add(dto);
+            }
+        }
+        return page;
+    }
+
+    private static String encodeCursor(String kind, String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((kind + "|" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the {sort value, post id} pair in the cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another ordering
+     */
+    private static String[] decodeCursor(String cursor, String expectedKind) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed feed cursor", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(expectedKind)) {
+            throw new IllegalArgumentException("Feed cursor does not belong to this feed");
+        }
+        return new String[] { parts[1], parts[2] };
+    }
     
   //------------- Community DTO + loader -------------
     public static class CommunityDTO {
@@ -199,14 +457,8 @@ public class PostDAO {
     	public List<CommunityDTO> getAllCommunities() throws SQLException {
     	 List<CommunityDTO> list = new ArrayList<>();
 
-    	 String sql = """
-    	     SELECT community_id, community_name
-    	     FROM Communities
-    	     ORDER BY community_name
-    	     """;
-
     	 try (Connection conn = Database.getConnection();
-    	      PreparedStatement ps = conn.prepareStatement(sql);
+    	      PreparedStatement ps = conn.prepareStatement(ALL_COMMUNITIES_SQL);
     	      ResultSet rs = ps.executeQuery()) {
 
     	     while (rs.next()) {
@@ -226,15 +478,8 @@ public class PostDAO {
     	public List<String> getAllTags() throws SQLException {
     	 List<String> list = new ArrayList<>();
 
-    	 String sql = """
-    	     SELECT DISTINCT tag
-    	     FROM Posts
-    	     WHERE tag IS NOT NULL AND tag != ''
-    	     ORDER BY tag
-    	     """;
-
     	 try (Connection conn = Database.getConnection();
-    	      PreparedStatement ps = conn.prepareStatement(sql);
+    	      PreparedStatement ps = conn.prepareStatement(ALL_TAGS_SQL);
     	      ResultSet rs = ps.executeQuery()) {
 
     	     while (rs.next()) {
@@ -260,8 +505,9 @@ public class PostDAO {
     	     VALUES (?, ?, ?, ?, 0, 0, CURRENT_TIMESTAMP,?)
     	     """;
 
+    	 int postId = 0;
     	 try (Connection conn = Database.getConnection();
-    	      PreparedStatement ps = conn.prepareStatement(sql)) {
+    	      PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
     	     ps.setInt(1, communityId);
     	     ps.setInt(2, userId);
@@ -269,7 +515,20 @@ public class PostDAO {
     	     ps.setString(4, content);
     	     ps.setString(5, tag); 
     	     ps.executeUpdate();
+
+    	     try (ResultSet keys = ps.getGeneratedKeys()) {
+    	         if (keys.next()) {
+    	             postId = keys.getInt(1);
+    	         }
+    	     }
     	 }
+
+    	 // Keep the in-process search index and the suggestions current without a reload,
+    	 // once the connection is back in the pool: the suggestions may need one of their own
+    	 if (postId != 0) {
+    	     SearchIndex.postCreated(postId, title, content, tag);
+    	 }
+    	 Suggestions.postCreated(communityId, userId, title, tag);
     	}
 
     	/**
@@ -277,7 +536,9 @@ public class PostDAO {
     	 * @return 1 if upvoted, -1 if downvoted, 0 if not voted
     	 */
     	public int getUserVote(int postId, int userId) throws SQLException {
-    	    return getUserVote(postId, userId, Database.getConnection());
+    	    try (Connection conn = Database.getConnection()) {
+    	        return getUserVote(postId, userId, conn);
+    	    }
     	}
     	
     	/**
@@ -285,8 +546,7 @@ public class PostDAO {
     	 * @return 1 if upvoted, -1 if downvoted, 0 if not voted
     	 */
     	private int getUserVote(int postId, int userId, Connection conn) throws SQLException {
-    	    String sql = "SELECT vote_type FROM Post_Votes WHERE post_id = ? AND user_id = ?";
-    	    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+    	    try (PreparedStatement ps = conn.prepareStatement(USER_VOTE_SQL)) {
     	        ps.setInt(1, postId);
     	        ps.setInt(2, userId);
     	        try (ResultSet rs = ps.executeQuery()) {
@@ -299,170 +559,98 @@ public class PostDAO {
     	}
 
     	/**
-    	 * Handles upvote - checks if user already voted and updates accordingly
-    	 * @return true if vote was successful, false if user already upvoted
+    	 * Gets the user's vote on each of the given posts in one round trip
+    	 * @return post id to 1 (upvoted), -1 (downvoted) or 0 (vote removed); posts never voted on are absent
     	 */
-    	public boolean handleUpvote(int postId, int userId) throws SQLException {
-    	    Connection conn = Database.getConnection();
-    	    boolean wasAutoCommit = conn.getAutoCommit();
-    	    try {
-    	        conn.setAutoCommit(false);
-    	        // Check existing vote
-    	        int existingVote = getUserVote(postId, userId, conn);
-    	            
-    	            if (existingVote == 1) {
-    	                // User already upvoted, remove the vote
-    	                String deleteSql = "DELETE FROM Post_Votes WHERE post_id = ? AND user_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                // Decrement vote count
-    	                String updateSql = "UPDATE Posts SET number_of_likes = CASE WHEN number_of_likes > 0 THEN number_of_likes - 1 ELSE 0 END WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                conn.commit();
-    	                return false; // Vote removed
-    	            } else if (existingVote == -1) {
-    	                // User previously downvoted, change to upvote
-    	                String updateVoteSql = "UPDATE Post_Votes SET vote_type = 1 WHERE post_id = ? AND user_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updateVoteSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                // Increment vote count by 2 (removing downvote + adding upvote)
-    	                String updatePostSql = "UPDATE Posts SET number_of_likes = number_of_likes + 2 WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updatePostSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                conn.commit();
-    	                return true;
-    	            } else {
-    	                // No existing vote, add new upvote
-    	                String insertSql = "INSERT INTO Post_Votes (post_id, user_id, vote_type) VALUES (?, ?, 1)";
-    	                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
+    	public Map<Integer, Integer> getUserVotes(int userId, Collection<Integer> postIds) throws SQLException {
+    	    Map<Integer, Integer> votes = new HashMap<>();
+    	    if (postIds.isEmpty()) {
+    	        return votes;
+    	    }
+    	    List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(postIds));
+
+    	    try (Connection conn = Database.getConnection()) {
+    	        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+    	            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+    	            try (PreparedStatement ps = conn.prepareStatement(userVotesSql(chunk.size()))) {
+    	                ps.setInt(1, userId);
+    	                for (int i = 0; i < chunk.size(); i++) {
+    	                    ps.setInt(i + 2, chunk.get(i));
     	                }
-    	                
-    	                // Increment vote count
-    	                String updatePostSql = "UPDATE Posts SET number_of_likes = number_of_likes + 1 WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updatePostSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
+    	                try (ResultSet rs = ps.executeQuery()) {
+    	                    while (rs.next()) {
+    	                        votes.put(rs.getInt("post_id"), rs.getInt("vote_type"));
+    	                    }
     	                }
-    	                
-    	                conn.commit();
-    	                return true;
     	            }
-    	        } catch (SQLException e) {
-    	            conn.rollback();
-    	            throw e;
-    	        } finally {
-    	            conn.setAutoCommit(wasAutoCommit);
     	        }
+    	    }
+    	    return votes;
+    	}
+
+    	// Each post_id IN (...) value is a lookup on the UNIQUE(post_id, user_id) index
+    	static String userVotesSql(int count) {
+    	    return "SELECT post_id, vote_type FROM Post_Votes WHERE user_id = ? AND post_id IN ("
+    	            + String.join(", ", Collections.nCopies(count, "?")) + ")";
     	}
 
     	/**
-    	 * Handles downvote - checks if user already voted and updates accordingly
-    	 * @return true if vote was successful, false if user already downvoted
+    	 * Records a click on ▲ (direction 1) or ▼ (direction -1). Clicking the button the
+    	 * user already chose removes the vote; clicking the other one switches it.
+    	 * The user's vote is saved at once by a single UPSERT that returns the transition;
+    	 * the post's tally is adjusted through VoteAggregator and written to Posts later.
+    	 * @return the post's new vote count and the user's resulting vote
     	 */
-    	public boolean handleDownvote(int postId, int userId) throws SQLException {
-    	    Connection conn = Database.getConnection();
-    	    boolean wasAutoCommit = conn.getAutoCommit();
-    	    try {
-    	        conn.setAutoCommit(false);
-    	        // Check existing vote
-    	        int existingVote = getUserVote(postId, userId, conn);
-    	            
-    	            if (existingVote == -1) {
-    	                // User already downvoted, remove the vote
-    	                String deleteSql = "DELETE FROM Post_Votes WHERE post_id = ? AND user_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                // Increment vote count (removing downvote)
-    	                String updateSql = "UPDATE Posts SET number_of_likes = number_of_likes + 1 WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                conn.commit();
-    	                return false; // Vote removed
-    	            } else if (existingVote == 1) {
-    	                // User previously upvoted, change to downvote
-    	                String updateVoteSql = "UPDATE Post_Votes SET vote_type = -1 WHERE post_id = ? AND user_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updateVoteSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                // Decrement vote count by 2 (removing upvote + adding downvote)
-    	                String updatePostSql = "UPDATE Posts SET number_of_likes = CASE WHEN number_of_likes >= 2 THEN number_of_likes - 2 ELSE 0 END WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updatePostSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                conn.commit();
-    	                return true;
-    	            } else {
-    	                // No existing vote, add new downvote
-    	                String insertSql = "INSERT INTO Post_Votes (post_id, user_id, vote_type) VALUES (?, ?, -1)";
-    	                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.setInt(2, userId);
-    	                    ps.executeUpdate();
-    	                }
-    	                
-    	                // Decrement vote count
-    	                String updatePostSql = "UPDATE Posts SET number_of_likes = CASE WHEN number_of_likes > 0 THEN number_of_likes - 1 ELSE 0 END WHERE post_id = ?";
-    	                try (PreparedStatement ps = conn.prepareStatement(updatePostSql)) {
-    	                    ps.setInt(1, postId);
-    	                    ps.executeUpdate();
+    	public VoteResult castVote(int postId, int userId, int direction) throws SQLException {
+    	    if (direction != 1 && direction != -1) {
+    	        throw new IllegalArgumentException("Vote direction must be 1 or -1");
+    	    }
+    	    try (Connection conn = Database.getConnection()) {
+    	        VoteResult result = new VoteResult();
+    	        // The ledger write and its tally change are recorded together, so a
+    	        // reconciliation of this post never sees one without the other
+    	        VoteAggregator.record(postId, () -> {
+    	            try (PreparedStatement ps = conn.prepareStatement(CAST_VOTE_SQL)) {
+    	                ps.setInt(1, postId);
+    	                ps.setInt(2, userId);
+    	                ps.setInt(3, direction);
+    	                try (ResultSet rs = ps.executeQuery()) {
+    	                    rs.next();
+    	                    result.userVote = rs.getInt("vote_type");
+    	                    return result.userVote - rs.getInt("previous_vote_type");
     	                }
-    	                
-    	                conn.commit();
-    	                return true;
     	            }
-    	        } catch (SQLException e) {
-    	            conn.rollback();
-    	            throw e;
-    	        } finally {
-    	            conn.setAutoCommit(wasAutoCommit);
-    	        }
+    	        });
+    	        result.voteCount = VoteAggregator.readCount(conn, postId);
+    	        return result;
+    	    } finally {
+    	        evictCachedPost(postId);
+    	    }
+    	}
+
+    	/**
+    	 * Handles upvote - adds, removes or switches the user's vote
+    	 * @return true if the post is now upvoted, false if the upvote was removed
+    	 */
+    	public boolean handleUpvote(int postId, int userId) throws SQLException {
+    	    return castVote(postId, userId, 1).userVote == 1;
     	}
 
     	/**
-    	 * Gets the current vote count for a post (for UI updates)
+    	 * Handles downvote - adds, removes or switches the user's vote
+    	 * @return true if the post is now downvoted, false if the downvote was removed
+    	 */
+    	public boolean handleDownvote(int postId, int userId) throws SQLException {
+    	    return castVote(postId, userId, -1).userVote == -1;
+    	}
+
+    	/**
+    	 * Gets the current vote count for a post (for UI updates), including votes not yet flushed to Posts
     	 */
     	public int getVoteCount(int postId) throws SQLException {
-    	    String sql = "SELECT number_of_likes FROM Posts WHERE post_id = ?";
-    	    try (Connection conn = Database.getConnection();
-    	         PreparedStatement ps = conn.prepareStatement(sql)) {
-    	        ps.setInt(1, postId);
-    	        try (ResultSet rs = ps.executeQuery()) {
-    	            if (rs.next()) {
-    	                return rs.getInt("number_of_likes");
-    	            }
-    	        }
+    	    try (Connection conn = Database.getConnection()) {
+    	        return VoteAggregator.readCount(conn, postId);
     	    }
-    	    return 0;
     	}
 
 }
@@ -0,0 +1,67 @@
+package edu.northeastern.uniforum.forum.dao;
+
+/**
+ * Describes which posts a feed or search should show: the filters, the order
+ * and the page size. PostDAO.findPosts compiles it into a single parameterized
+ * SQL statement so the filtering happens in SQLite rather than in memory.
+ * Unset (null) filters match every post.
+ */
+public class PostQuery {
+
+    /**
+     * Orderings offered by the Explore "Sort by" dropdown
+     */
+    public enum Sort {
+        MOST_LIKED,
+        LEAST_LIKED,
+        LATEST,
+        OLDEST
+    }
+
+    private String keyword;
+    private String community;
+    private String tag;
+    private Integer joinedByUserId;
+    private Sort sort = Sort.LATEST;
+    private int limit = 25;
+
+    /**
+     * @param keyword text that must appear in the title or content (case-insensitive), or null
+     */
+    public void setKeyword(String keyword) {
+        this.keyword = keyword == null || keyword.trim().isEmpty() ? null : keyword.trim();
+    }
+    public String getKeyword() { return keyword; }
+
+    /**
+     * @param community exact community name, or null for all communities
+     */
+    public void setCommunity(String community) { this.community = community; }
+    public String getCommunity() { return community; }
+
+    /**
+     * @param tag exact tag, or null for all tags
+     */
+    public void setTag(String tag) { this.tag = tag; }
+    public String getTag() { return tag; }
+
+    /**
+     * @param userId only include posts from communities this user has joined, or null for all
+     */
+    public void setJoinedByUserId(Integer userId) { this.joinedByUserId = userId; }
+    public Integer getJoinedByUserId() { return joinedByUserId; }
+
+    public void setSort(Sort sort) { this.sort = sort != null ? sort : Sort.LATEST; }
+    public Sort getSort() { return sort; }
+
+    /**
+     * @param limit maximum number of posts per page
+     */
+    public void setLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.limit = limit;
+    }
+    public int getLimit() { return limit; }
+}
@@ -0,0 +1,47 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets another thread stop a DAO call whose result is no longer wanted. The DAO registers
+ * each statement while it runs; {@link #cancel()} interrupts the running one, which then
+ * fails with an SQLException and hands its pooled connection back, and makes any later
+ * statement of the call fail before it starts.
+ */
+public final class QueryCanceller {
+
+    private Statement running;
+    private boolean cancelled;
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                System.err.println("Error cancelling query: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a statement about to run. Must be followed by {@link #end()} while its
+     * connection is still borrowed, so a late cancel cannot interrupt the connection's next user.
+     * @throws SQLException if the call has already been cancelled
+     */
+    synchronized void begin(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query cancelled");
+        }
+        running = statement;
+    }
+
+    synchronized void end() {
+        running = null;
+    }
+}
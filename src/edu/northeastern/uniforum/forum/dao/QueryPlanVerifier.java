@@ -0,0 +1,120 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Startup self-check that runs EXPLAIN QUERY PLAN on the DAO queries and warns
+ * when SQLite would scan a whole table or build a temporary B-tree to sort,
+ * which usually means an index is missing or is not usable by the query.
+ */
+public class QueryPlanVerifier {
+
+    private static final Pattern FTS_MATCH_STEP = Pattern.compile("VIRTUAL TABLE INDEX \\d+:\\S*M");
+
+    /**
+     * Queries to check, by a readable name. Parameters are left unbound,
+     * which SQLite plans the same way as bound ones.
+     */
+    private static Map<String, String> queries() throws SQLException {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("PostDAO.getAllPosts", PostDAO.ALL_POSTS_SQL);
+        queries.put("PostDAO.getAllPostsSortedByLikes", PostDAO.ALL_POSTS_BY_LIKES_SQL);
+        queries.put("PostDAO.getPostsFromJoinedCommunities", PostDAO.JOINED_COMMUNITY_POSTS_SQL);
+        for (PostQuery.Sort sort : PostQuery.Sort.values()) {
+            PostQuery query = new PostQuery();
+            query.setSort(sort);
+            queries.put("PostDAO.findPosts " + sort + " (first)", PostDAO.compile(query, null, new ArrayList<>()));
+            queries.put("PostDAO.findPosts " + sort + " (next)",
+                    PostDAO.compile(query, new String[] { "0", "0" }, new ArrayList<>()));
+        }
+        PostQuery joined = new PostQuery();
+        joined.setJoinedByUserId(0);
+        queries.put("PostDAO.findPosts joined (next)", PostDAO.compile(joined, new String[] { "0", "0" }, new ArrayList<>()));
+        for (PostQuery.Sort sort : PostQuery.Sort.values()) {
+            PostQuery byCommunity = new PostQuery();
+            byCommunity.setCommunity("");
+            byCommunity.setKeyword("x");
+            byCommunity.setSort(sort);
+            queries.put("PostDAO.findPosts community+keyword " + sort, PostDAO.compile(byCommunity, null, new ArrayList<>()));
+            PostQuery byTag = new PostQuery();
+            byTag.setTag("");
+            byTag.setSort(sort);
+            queries.put("PostDAO.findPosts tag " + sort, PostDAO.compile(byTag, null, new ArrayList<>()));
+        }
+        queries.put("PostDAO.getPostById", PostDAO.POST_BY_ID_SQL);
+        queries.put("PostDAO.getAllCommunities", PostDAO.ALL_COMMUNITIES_SQL);
+        queries.put("PostDAO.getAllTags", PostDAO.ALL_TAGS_SQL);
+        queries.put("PostDAO.getUserVote", PostDAO.USER_VOTE_SQL);
+        queries.put("PostDAO.getUserVotes", PostDAO.userVotesSql(3));
+        queries.put("PostDAO.getVoteCount", PostDAO.VOTE_COUNT_SQL);
+        queries.put("VoteReconciler changes", VoteReconciler.CHANGES_SQL);
+        queries.put("VoteReconciler recount", VoteReconciler.RECOUNT_SQL);
+        queries.put("ReplyDAO.getRepliesByPostId", ReplyDAO.REPLIES_BY_POST_SQL);
+        queries.put("ReplyDAO.getRootReplies", ReplyDAO.ROOT_REPLIES_PAGE_SQL);
+        queries.put("ReplyDAO.getSubThread", ReplyDAO.SUB_THREAD_SQL);
+        queries.put("UserDAO.getUserByUsername", UserDAO.SELECT_USER_BY_USERNAME_SQL);
+        queries.put("UserDAO.hasUserJoinedCommunities", UserDAO.COUNT_USER_COMMUNITIES_SQL);
+        queries.put("UserDAO.getUserCommunities", UserDAO.SELECT_USER_COMMUNITIES_SQL);
+        return queries;
+    }
+
+    /**
+     * Checks every registered query and prints a warning for each problem found.
+     * @return the warnings, empty when every query plan uses an index
+     */
+    public static List<String> verify() {
+        List<String> warnings = new ArrayList<>();
+        long start = System.currentTimeMillis();
+
+        try (Connection conn = Database.getConnection()) {
+            for (Map.Entry<String, String> query : queries().entrySet()) {
+                for (String step : explain(conn, query.getValue())) {
+                    if (isFullScan(step) || step.contains("USE TEMP B-TREE")) {
+                        warnings.add(query.getKey() + ": " + step);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            warnings.add("Could not verify query plans: " + e.getMessage());
+        }
+
+        for (String warning : warnings) {
+            System.err.println("Query plan warning - " + warning);
+        }
+        System.out.println("Query plans checked in " + (System.currentTimeMillis() - start)
+                + " ms, " + warnings.size() + " warning(s).");
+        return warnings;
+    }
+
+    private static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                steps.add(rs.getString("detail"));
+            }
+        }
+        return steps;
+    }
+
+    // "SCAN p USING INDEX ..." walks an index in order; "SCAN p" alone reads every row.
+    // An FTS5 table constrained by MATCH ("VIRTUAL TABLE INDEX n:M...") reads only its postings,
+    // and json_each only walks the id list the in-process search index passed in.
+    private static boolean isFullScan(String step) {
+        return step.startsWith("SCAN ")
+                && !step.contains(" USING ")
+                && !FTS_MATCH_STEP.matcher(step).find()
+                && !step.startsWith("SCAN json_each ")
+                && !step.startsWith("SCAN CONSTANT ROW");
+    }
+}
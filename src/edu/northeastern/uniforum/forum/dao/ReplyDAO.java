@@ -1,15 +1,61 @@
 package edu.northeastern.uniforum.forum.dao;
 
 import edu.northeastern.uniforum.db.Database;
+import edu.northeastern.uniforum.forum.search.SearchIndex;
 import edu.northeastern.uniforum.forum.util.TimeUtil;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReplyDAO {
 
+    // Package-private so QueryPlanVerifier can check it at startup.
+    // Ordering by the materialized path lists the thread depth-first.
+    static final String REPLIES_BY_POST_SQL = """
+            SELECT r.reply_id, r.post_id, r.parent_reply_id, r.depth, r.path,
+                   r.content, r.number_of_likes, r.created_time,
+                   u.user_name
+            FROM Replies r
+            JOIN Users u ON r.user_id = u.user_id
+            WHERE r.post_id = ?
+            ORDER BY r.path
+            """;
+
+    // One page of top-level replies, after the path in the cursor, each with the
+    // size of its sub-thread. A reply's answers are exactly the paths between
+    // path || '/' and path || '0', so the count is a range of idx_replies_post_path.
+    static final String ROOT_REPLIES_PAGE_SQL = """
+            SELECT r.reply_id, r.post_id, r.parent_reply_id, r.depth, r.path,
+                   r.content, r.number_of_likes, r.created_time,
+                   u.user_name,
+                   (SELECT COUNT(*) FROM Replies d
+                    WHERE d.post_id = r.post_id
+                      AND d.path > r.path || '/' AND d.path < r.path || '0') AS reply_count
+            FROM Replies r
+            JOIN Users u ON r.user_id = u.user_id
+            WHERE r.post_id = ? AND r.parent_reply_id IS NULL AND r.path > ?
+            ORDER BY r.path
+            LIMIT ?
+            """;
+
+    // Every answer below one reply, in thread order
+    static final String SUB_THREAD_SQL = """
+            SELECT r.reply_id, r.post_id, r.parent_reply_id, r.depth, r.path,
+                   r.content, r.number_of_likes, r.created_time,
+                   u.user_name
+            FROM Replies r
+            JOIN Users u ON r.user_id = u.user_id
+            WHERE r.post_id = ? AND r.path > ? || '/' AND r.path < ? || '0'
+            ORDER BY r.path
+            """;
+
+    static final String REPLY_POST_SQL =
+            "SELECT post_id FROM Replies WHERE reply_id = ?";
+
     public static class ReplyDTO {
         public int replyId;
         public int postId;
@@ -18,47 +64,31 @@ public class ReplyDAO {
         public String timeAgo;
         public int likes;
         public Integer parentReplyId; // null for top-level replies
+        public int depth;             // 0 for top-level replies
+        public String path;           // materialized path, e.g. "0000000003/0000000007"
+        public int replyCount;        // answers below this reply, set by getRootReplies
+        public List<ReplyDTO> children = new ArrayList<>(); // filled by getSubThread
+    }
+
+    public static class ReplyPage {
+        public List<ReplyDTO> replies = new ArrayList<>();
+        public String nextCursor;     // null when there are no more top-level replies
     }
 
     /**
-     * Gets all replies for a specific post
+     * Gets all replies for a specific post, in thread order (each reply followed by its answers)
      */
     public List<ReplyDTO> getRepliesByPostId(int postId) throws SQLException {
         List<ReplyDTO> list = new ArrayList<>();
 
-        String sql = """
-            SELECT r.reply_id, r.post_id, r.content, r.number_of_likes, r.created_time,
-                   u.user_name
-            FROM Replies r
-            JOIN Users u ON r.user_id = u.user_id
-            WHERE r.post_id = ?
-            ORDER BY r.created_time ASC
-            """;
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            
+             PreparedStatement ps = conn.prepareStatement(REPLIES_BY_POST_SQL)) {
+
             ps.setInt(1, postId);
-            
+
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    ReplyDTO dto = new ReplyDTO();
-                    dto.replyId = rs.getInt("reply_id");
-                    dto.postId = rs.getInt("post_id");
-                    dto.content = rs.getString("content");
-                    dto.likes = rs.getInt("number_of_likes");
-                    dto.author = rs.getString("user_name");
-                    dto.parentReplyId = null; // For now, no nested replies
-
-                    Timestamp ts = rs.getTimestamp("created_time");
-                    if (ts != null) {
-                        LocalDateTime created = ts.toLocalDateTime();
-                        dto.timeAgo = TimeUtil.timeAgo(created);
-                    } else {
-                        dto.timeAgo = "unknown";
-                    }
-
-                    list.add(dto);
+                    list.add(mapReply(rs));
                 }
             }
         }
@@ -67,44 +97,167 @@ public class ReplyDAO {
     }
 
     /**
-     * Creates a new reply to a post
+     * Gets one page of a post's top-level replies, without their answers
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the number of top-level replies per page
      */
-    public void createReply(int postId, int userId, String content) throws SQLException {
-        String sql = """
-            INSERT INTO Replies (post_id, user_id, content, number_of_likes, created_time)
-            VALUES (?, ?, ?, 0, CURRENT_TIMESTAMP)
-            """;
+    public ReplyPage getRootReplies(int postId, String cursor, int limit) throws SQLException {
+        ReplyPage page = new ReplyPage();
 
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(ROOT_REPLIES_PAGE_SQL)) {
 
             ps.setInt(1, postId);
-            ps.setInt(2, userId);
-            ps.setString(3, content);
-            ps.executeUpdate();
+            ps.setString(2, cursor != null ? cursor : "");
+            ps.setInt(3, limit + 1);    // one extra row tells whether another page exists
 
-            // Update the post's reply count
-            updatePostReplyCount(conn, postId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ReplyDTO dto = mapReply(rs);
+                    dto.replyCount = rs.getInt("reply_count");
+                    page.replies.add(dto);
+                }
+            }
+        }
+
+        if (page.replies.size() > limit) {
+            page.replies.remove(limit);
+            page.nextCursor = page.replies.get(limit - 1).path;
         }
+        return page;
     }
 
     /**
-     * Updates the reply count for a post
+     * Gets the answers below a reply as a tree
+     * @return the direct answers to the reply, each holding its own answers in children
      */
-    private void updatePostReplyCount(Connection conn, int postId) throws SQLException {
+    public List<ReplyDTO> getSubThread(ReplyDTO reply) throws SQLException {
+        List<ReplyDTO> list = new ArrayList<>();
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUB_THREAD_SQL)) {
+
+            ps.setInt(1, reply.postId);
+            ps.setString(2, reply.path);
+            ps.setString(3, reply.path);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapReply(rs));
+                }
+            }
+        }
+
+        // The reply itself is not in the list, so its direct answers come out as roots
+        return buildTree(list);
+    }
+
+    /**
+     * Links replies in thread order to their parents in a single pass.
+     * A parent always comes before its answers in path order, so its node already exists.
+     */
+    static List<ReplyDTO> buildTree(List<ReplyDTO> replies) {
+        List<ReplyDTO> roots = new ArrayList<>();
+        Map<Integer, ReplyDTO> byId = new HashMap<>();
+
+        for (ReplyDTO reply : replies) {
+            byId.put(reply.replyId, reply);
+            ReplyDTO parent = reply.parentReplyId != null ? byId.get(reply.parentReplyId) : null;
+            if (parent != null) {
+                parent.children.add(reply);
+            } else {
+                roots.add(reply);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Maps the current row of a reply query to a ReplyDTO
+     */
+    private ReplyDTO mapReply(ResultSet rs) throws SQLException {
+        ReplyDTO dto = new ReplyDTO();
+        dto.replyId = rs.getInt("reply_id");
+        dto.postId = rs.getInt("post_id");
+        dto.content = rs.getString("content");
+        dto.likes = rs.getInt("number_of_likes");
+        dto.author = rs.getString("user_name");
+        dto.depth = rs.getInt("depth");
+        dto.path = rs.getString("path");
+
+        int parentId = rs.getInt("parent_reply_id");
+        dto.parentReplyId = rs.wasNull() ? null : parentId;
+
+        Timestamp ts = rs.getTimestamp("created_time");
+        if (ts != null) {
+            LocalDateTime created = ts.toLocalDateTime();
+            dto.timeAgo = TimeUtil.timeAgo(created);
+        } else {
+            dto.timeAgo = "unknown";
+        }
+        return dto;
+    }
+
+    /**
+     * Creates a new top-level reply to a post
+     */
+    public void createReply(int postId, int userId, String content) throws SQLException {
+        createReply(postId, userId, content, null);
+    }
+
+    /**
+     * Creates a new reply to a post, or to another reply on the same post.
+     * The reply's path and depth are filled in from its parent by a trigger.
+     * @param parentReplyId the reply being answered, or null for a top-level reply
+     */
+    public void createReply(int postId, int userId, String content, Integer parentReplyId) throws SQLException {
         String sql = """
-            UPDATE Posts 
-            SET number_of_replies = (
-                SELECT COUNT(*) FROM Replies WHERE post_id = ?
-            )
-            WHERE post_id = ?
+            INSERT INTO Replies (post_id, user_id, content, number_of_likes, created_time, parent_reply_id)
+            VALUES (?, ?, ?, 0, CURRENT_TIMESTAMP, ?)
             """;
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, postId);
-            ps.setInt(2, postId);
-            ps.executeUpdate();
+        try (Connection conn = Database.getConnection()) {
+            if (parentReplyId != null) {
+                checkParent(conn, postId, parentReplyId);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, postId);
+                ps.setInt(2, userId);
+                ps.setString(3, content);
+                if (parentReplyId != null) {
+                    ps.setInt(4, parentReplyId);
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.executeUpdate();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        SearchIndex.replyCreated(postId, keys.getInt(1), content);
+                    }
+                }
+            }
+
+            // number_of_replies is incremented by trg_replies_count_insert in the same statement
+            PostDAO.evictCachedPost(postId);
         }
     }
-}
 
+    /**
+     * Makes sure a reply is only ever answered on its own post
+     */
+    private void checkParent(Connection conn, int postId, int parentReplyId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(REPLY_POST_SQL)) {
+            ps.setInt(1, parentReplyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Reply not found with id: " + parentReplyId);
+                }
+                if (rs.getInt("post_id") != postId) {
+                    throw new SQLException("Reply " + parentReplyId + " belongs to another post");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text matching of posts and replies for the feed's keyword filter, backed by the
+ * Posts_FTS and Replies_FTS indexes that triggers keep in sync with the Posts and Replies tables.
+ */
+public class SearchDAO {
+
+    // Ids of the posts whose own text, or one of whose replies, matches; binds the MATCH expression twice.
+    // Like the in-process index, a reply counts towards its post, so both backends find the same posts.
+    static final String MATCHING_POSTS_SQL = """
+            SELECT rowid FROM Posts_FTS WHERE Posts_FTS MATCH ?
+            UNION
+            SELECT r.post_id
+            FROM Replies_FTS f
+            JOIN Replies r ON r.reply_id = f.rowid
+            WHERE Replies_FTS MATCH ?
+            """;
+
+    private static final String FULL_TEXT_TABLE_SQL =
+            "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'Posts_FTS'";
+
+    private static volatile Boolean fullTextAvailable;
+
+    // A "quoted phrase", optionally followed by *, or a run of anything else up to whitespace
+    private static final Pattern QUERY_TOKEN = Pattern.compile("\"([^\"]*)\"(\\*?)|(\\S+)");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    /**
+     * Tells whether the FTS5 tables exist. SQLite builds without FTS5 cannot create them;
+     * the feed then searches the in-process index instead.
+     */
+    static boolean isFullTextAvailable() throws SQLException {
+        if (fullTextAvailable == null) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(FULL_TEXT_TABLE_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                fullTextAvailable = rs.next();
+            }
+        }
+        return fullTextAvailable;
+    }
+
+    /**
+     * Translates what the user typed into an FTS5 query. Every word is quoted so
+     * punctuation and FTS5 keywords in the input can never be a syntax error.
+     * @return the MATCH expression, or null if the text contains no words
+     */
+    static String matchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        boolean pendingOr = false;
+        Matcher token = QUERY_TOKEN.matcher(text);
+
+        while (token.find()) {
+            String term;
+            if (token.group(3) != null) {
+                if (token.group(3).equals("OR")) {
+                    pendingOr = !terms.isEmpty();
+                    continue;
+                }
+                // Each word in the token becomes a prefix term; "c++" is searched as c*
+                List<String> words = words(token.group(3));
+                if (words.isEmpty()) {
+                    continue;
+                }
+                List<String> prefixes = new ArrayList<>();
+                for (String word : words) {
+                    prefixes.add("\"" + word + "\"*");
+                }
+                term = String.join(" ", prefixes);
+                if (prefixes.size() > 1) {
+                    term = "(" + term + ")";
+                }
+            } else {
+                List<String> words = words(token.group(1));
+                if (words.isEmpty()) {
+                    continue;
+                }
+                term = "\"" + String.join(" ", words) + "\"" + token.group(2);
+            }
+
+            if (pendingOr) {
+                // FTS5 binds AND tighter than OR, so keep the alternatives together
+                terms.add("(" + terms.remove(terms.size() - 1) + " OR " + term + ")");
+                pendingOr = false;
+            } else {
+                terms.add(term);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" AND ", terms);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        Matcher word = WORD.matcher(text);
+        while (word.find()) {
+            words.add(word.group());
+        }
+        return words;
+    }
+}
@@ -0,0 +1,114 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import edu.northeastern.uniforum.forum.model.User;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recently read users, looked up by username, so opening the profile of an author seen
+ * a moment ago does not query the database again. It holds at most CAPACITY users, least
+ * recently used out first, and each for at most TTL, so changes made by another copy of
+ * the application sharing the database still show up. Changes made here go through the
+ * UserDAO update methods, which invalidate the user they change by id; users are kept by
+ * id for that reason. Users are copied in and out, so a caller changing one cannot change
+ * the cached copy.
+ */
+final class UserCache {
+
+    private static final int CAPACITY = 256;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Integer> idsByUsername = new HashMap<>();
+
+    // By user id, least recently used first
+    private final Map<Integer, Entry> byId = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+            if (size() > CAPACITY) {
+                idsByUsername.remove(eldest.getValue().user.getUsername(), eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Bumped by every invalidation, so a read that raced with an update is not cached
+    private long generation;
+
+    /**
+     * @return the value to pass to {@link #put} for a user about to be read from the database
+     */
+    synchronized long stamp() {
+        return generation;
+    }
+
+    /**
+     * @return a copy of the cached user, or null if it is not cached or has expired
+     */
+    synchronized User getByUsername(String username) {
+        Integer userId = idsByUsername.get(username);
+        return userId == null ? null : getById(userId);
+    }
+
+    private User getById(int userId) {
+        Entry entry = byId.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            remove(userId, entry);
+            return null;
+        }
+        return copy(entry.user);
+    }
+
+    /**
+     * Caches a user read from the database, unless a user was invalidated since the read began
+     * @param stamp what {@link #stamp()} returned before the read
+     */
+    synchronized void put(User user, long stamp) {
+        if (user == null || stamp != generation) {
+            return;
+        }
+        Entry previous = byId.get(user.getUserId());
+        if (previous != null) {
+            idsByUsername.remove(previous.user.getUsername(), user.getUserId());
+        }
+        byId.put(user.getUserId(), new Entry(copy(user), System.nanoTime() + TTL_NANOS));
+        idsByUsername.put(user.getUsername(), user.getUserId());
+    }
+
+    /**
+     * Forgets a user whose row has just been changed
+     */
+    synchronized void invalidate(int userId) {
+        generation++;
+        Entry entry = byId.get(userId);
+        if (entry != null) {
+            remove(userId, entry);
+        }
+    }
+
+    private void remove(int userId, Entry entry) {
+        byId.remove(userId);
+        idsByUsername.remove(entry.user.getUsername(), userId);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUserId(), user.getUsername(), user.getPasswordHash(), user.getEmail(),
+                user.getLinkedinUrl(), user.getGithubUrl(), user.getDepartment());
+    }
+}
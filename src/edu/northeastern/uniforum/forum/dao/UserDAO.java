@@ -13,14 +13,23 @@ import java.util.ArrayList;
 
 public class UserDAO {
     
+    // Shared by every UserDAO, so all controllers see the same recently read users
+    private static final UserCache CACHE = new UserCache();
+    
     // SQL Statement for inserting a new user during registration
     private static final String INSERT_USER_SQL = 
             "INSERT INTO Users (user_name, PasswordHash, Email) VALUES (?, ?, ?)";
     
     // SQL Statement for retrieving a user during login
-    private static final String SELECT_USER_BY_USERNAME_SQL = 
+    static final String SELECT_USER_BY_USERNAME_SQL = 
             "SELECT user_id, user_name, PasswordHash, Email, LinkedInURL, GitHubURL, Department FROM Users WHERE user_name = ?";
 
+    // SQL Statements for a user's community memberships
+    static final String COUNT_USER_COMMUNITIES_SQL =
+            "SELECT COUNT(*) FROM Community_User WHERE user_id = ?";
+    static final String SELECT_USER_COMMUNITIES_SQL =
+            "SELECT community_id FROM Community_User WHERE user_id = ?";
+
     /**
      * Attempts to register a new user in the database.
      * @param user The User object containing username, hashed password, and email.
@@ -58,12 +67,29 @@ public class UserDAO {
     }
 
     /**
-     * Retrieves a User object from the database based on the provided username.
-     * Used during the login process to fetch the stored password hash.
-     * @param username The username provided by the user during login.
+     * Retrieves a User object based on the provided username, from the user cache when
+     * the user has been read recently.
+     * @param username The username to look up.
      * @return A User object if found, or null if no matching user is found or a DB error occurs.
      */
     public User getUserByUsername(String username) {
+        User cached = CACHE.getByUsername(username);
+        if (cached != null) {
+            return cached;
+        }
+        return getUserForLogin(username);
+    }
+
+    /**
+     * Retrieves a User object from the database based on the provided username, never from
+     * the user cache, so a password changed by another copy of the application sharing the
+     * database is checked at once. Used during the login process to fetch the stored password
+     * hash; the row read replaces any cached copy.
+     * @param username The username provided by the user during login.
+     * @return A User object if found, or null if no matching user is found or a DB error occurs.
+     */
+    public User getUserForLogin(String username) {
+        long stamp = CACHE.stamp();
         
         try (Connection connection = Database.getConnection();
              PreparedStatement statement = connection.prepareStatement(SELECT_USER_BY_USERNAME_SQL)) {
@@ -74,15 +100,9 @@ public class UserDAO {
             try (ResultSet rs = statement.executeQuery()) {
                 if (rs.next()) {
                     // Found user, create and return the User object
-                    return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("user_name"),
-                        rs.getString("PasswordHash"),
-                        rs.getString("Email"),
-                        rs.getString("LinkedInURL"),
-                        rs.getString("GitHubURL"),
-                        rs.getString("Department")
-                    );
+                    User user = readUser(rs);
+                    CACHE.put(user, stamp);
+                    return user;
                 }
             }
         } catch (SQLException e) {
@@ -91,15 +111,26 @@ public class UserDAO {
         return null; // User not found or error occurred
     }
 
+    private static User readUser(ResultSet rs) throws SQLException {
+        return new User(
+            rs.getInt("user_id"),
+            rs.getString("user_name"),
+            rs.getString("PasswordHash"),
+            rs.getString("Email"),
+            rs.getString("LinkedInURL"),
+            rs.getString("GitHubURL"),
+            rs.getString("Department")
+        );
+    }
+
     /**
      * Checks if a user has joined any communities
      * @param userId The user ID to check
      * @return true if user has joined at least one community, false otherwise
      */
     public boolean hasUserJoinedCommunities(int userId) {
-        String sql = "SELECT COUNT(*) FROM Community_User WHERE user_id = ?";
         try (Connection connection = Database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(COUNT_USER_COMMUNITIES_SQL)) {
             statement.setInt(1, userId);
             try (ResultSet rs = statement.executeQuery()) {
                 if (rs.next()) {
@@ -150,9 +181,8 @@ public class UserDAO {
      */
     public List<Integer> getUserCommunities(int userId) {
         List<Integer> communityIds = new ArrayList<>();
-        String sql = "SELECT community_id FROM Community_User WHERE user_id = ?";
         try (Connection connection = Database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(SELECT_USER_COMMUNITIES_SQL)) {
             statement.setInt(1, userId);
             try (ResultSet rs = statement.executeQuery()) {
                 while (rs.next()) {
@@ -256,6 +286,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating password: " + e.getMessage());
@@ -279,6 +310,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating username: " + e.getMessage());
@@ -302,6 +334,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating email: " + e.getMessage());
@@ -325,6 +358,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating LinkedIn URL: " + e.getMessage());
@@ -348,6 +382,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating GitHub URL: " + e.getMessage());
@@ -371,6 +406,7 @@ public class UserDAO {
             statement.setInt(2, userId);
             
             int rowsAffected = statement.executeUpdate();
+            CACHE.invalidate(userId);
             return rowsAffected == 1;
         } catch (SQLException e) {
             System.err.println("Error updating Department: " + e.getMessage());
@@ -0,0 +1,264 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for Posts.number_of_likes.
+ * Each user's vote is still written to Post_Votes immediately; only the change to the
+ * post's tally is added to an in-memory counter here and written to Posts later, many
+ * posts per transaction, on a timer or once enough votes have built up.
+ *
+ * Posts are spread over a fixed set of lock stripes. Recording a vote takes its stripe's
+ * read lock, so votes never block each other; a flush takes the write lock of every
+ * stripe it drains, so a reader holding a read lock sees either the pending delta or the
+ * flushed row, never both or neither.
+ */
+public class VoteAggregator {
+
+    private static final int STRIPES = 16;
+    private static final long FLUSH_INTERVAL_MILLIS = 2_000;
+    private static final int FLUSH_THRESHOLD = 100;   // unflushed votes that trigger an early flush
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE Posts SET number_of_likes = number_of_likes + ? WHERE post_id = ?";
+
+    private static final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    private static final ReadWriteLock[] stripes = new ReadWriteLock[STRIPES];
+    private static final AtomicInteger unflushedVotes = new AtomicInteger();
+    private static final AtomicBoolean flushRequested = new AtomicBoolean();
+    private static final Object flushLock = new Object();
+
+    private static ScheduledExecutorService flusher;
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * A write to Post_Votes that commits before returning
+     */
+    @FunctionalInterface
+    interface LedgerWrite {
+        /**
+         * @return the change the write makes to the post's tally
+         */
+        int apply() throws SQLException;
+    }
+
+    /**
+     * Runs a vote's ledger write and adds the resulting change to the post's tally,
+     * to be written to Posts by the next flush. Both happen under the post's stripe
+     * read lock, so a flush or reconciliation sees the vote and its delta together.
+     */
+    static void record(int postId, LedgerWrite write) throws SQLException {
+        ReadWriteLock stripe = stripeFor(postId);
+        stripe.readLock().lock();
+        try {
+            int delta = write.apply();
+            if (delta == 0) {
+                return;
+            }
+            pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+        } finally {
+            stripe.readLock().unlock();
+        }
+
+        ScheduledExecutorService executor = flusher();
+        if (unflushedVotes.incrementAndGet() >= FLUSH_THRESHOLD && flushRequested.compareAndSet(false, true)) {
+            executor.execute(VoteAggregator::flushQuietly);
+        }
+    }
+
+    /**
+     * @return the change to the post's tally that has not been written to Posts yet.
+     * Without the stripe lock this can briefly miss a delta that is mid-flush; use
+     * {@link #readCount} where the exact tally matters.
+     */
+    static int pendingDelta(int postId) {
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.intValue() : 0;
+    }
+
+    /**
+     * Reads number_of_likes and adds the pending delta, consistently with any running flush
+     * @return the post's current tally, or 0 if the post does not exist
+     */
+    static int readCount(Connection conn, int postId) throws SQLException {
+        ReadWriteLock stripe = stripeFor(postId);
+        stripe.readLock().lock();
+        try (PreparedStatement ps = conn.prepareStatement(PostDAO.VOTE_COUNT_SQL)) {
+            ps.setInt(1, postId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt("number_of_likes") + pendingDelta(postId) : 0;
+            }
+        } finally {
+            stripe.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every pending delta to Posts in one transaction
+     * @return the number of posts updated
+     */
+    public static int flush() throws SQLException {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            if (pending.isEmpty()) {
+                return 0;
+            }
+
+            // Borrow the connection before taking any stripe lock: voters hold a
+            // connection while they wait for a stripe, so the reverse order could deadlock
+            try (Connection conn = Database.getConnection()) {
+                List<Integer> postIds = new ArrayList<>(pending.keySet());
+                List<ReadWriteLock> locked = lockStripes(postIds);
+                try {
+                    Map<Integer, Integer> deltas = new LinkedHashMap<>();
+                    for (Integer postId : postIds) {
+                        LongAdder adder = pending.remove(postId);
+                        if (adder != null && adder.intValue() != 0) {
+                            deltas.put(postId, adder.intValue());
+                        }
+                    }
+                    if (deltas.isEmpty()) {
+                        return 0;
+                    }
+
+                    try {
+                        write(conn, deltas);
+                    } catch (SQLException e) {
+                        // Keep the deltas for the next flush
+                        for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                            pending.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(entry.getValue());
+                        }
+                        throw e;
+                    }
+                    unflushedVotes.set(0);
+                    for (Integer postId : deltas.keySet()) {
+                        PostDAO.evictCachedPost(postId);
+                    }
+                    return deltas.size();
+                } finally {
+                    unlockStripes(locked);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the timer and writes whatever is still pending. Called when the application exits.
+     */
+    public static void shutdown() {
+        synchronized (VoteAggregator.class) {
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Write-locks the stripes of the given posts, in index order so that two
+     * callers can never deadlock. Callers must already hold their connection.
+     * @return the locked stripes, to pass to {@link #unlockStripes}
+     */
+    static List<ReadWriteLock> lockStripes(Collection<Integer> postIds) {
+        boolean[] wanted = new boolean[STRIPES];
+        for (Integer postId : postIds) {
+            wanted[stripeIndex(postId)] = true;
+        }
+        List<ReadWriteLock> locked = new ArrayList<>();
+        for (int i = 0; i < STRIPES; i++) {
+            if (wanted[i]) {
+                stripes[i].writeLock().lock();
+                locked.add(stripes[i]);
+            }
+        }
+        return locked;
+    }
+
+    static void unlockStripes(List<ReadWriteLock> locked) {
+        for (ReadWriteLock stripe : locked) {
+            stripe.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets a post's pending delta after its tally has been recomputed from the ledger.
+     * The caller must hold the post's stripe write lock.
+     */
+    static void discardPending(int postId) {
+        pending.remove(postId);
+    }
+
+    private static void write(Connection conn, Map<Integer, Integer> deltas) throws SQLException {
+        boolean wasAutoCommit = conn.getAutoCommit();
+        try (PreparedStatement ps = conn.prepareStatement(APPLY_DELTA_SQL)) {
+            conn.setAutoCommit(false);
+            for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setInt(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(wasAutoCommit);
+        }
+    }
+
+    // Runs on the flusher thread; a failed flush leaves the deltas pending for the next one
+    private static void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Could not flush vote counts: " + e.getMessage());
+        }
+    }
+
+    private static synchronized ScheduledExecutorService flusher() {
+        if (flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "vote-count-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(VoteAggregator::flushQuietly,
+                    FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return flusher;
+    }
+
+    private static ReadWriteLock stripeFor(int postId) {
+        return stripes[stripeIndex(postId)];
+    }
+
+    private static int stripeIndex(int postId) {
+        return Math.floorMod(postId, STRIPES);
+    }
+}
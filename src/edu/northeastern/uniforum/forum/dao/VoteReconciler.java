@@ -0,0 +1,183 @@
+package edu.northeastern.uniforum.forum.dao;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Background job that keeps Posts.number_of_likes equal to SUM(vote_type) in Post_Votes.
+ * Triggers log every post whose votes change in Vote_Changes; each run recounts only
+ * the posts logged after the stored high-water mark, in bounded batches, so an accurate
+ * count never needs a full-table aggregate.
+ */
+public class VoteReconciler {
+
+    private static final String JOB = "post_votes";
+    private static final int BATCH_SIZE = 200;                 // change log rows per transaction
+    private static final long INITIAL_DELAY_MILLIS = 5_000;
+    private static final long INTERVAL_MILLIS = 60_000;
+
+    private static final String HIGH_WATER_MARK_SQL =
+            "SELECT high_water_mark FROM Reconcile_State WHERE job = ?";
+
+    static final String CHANGES_SQL = """
+            SELECT change_id, post_id
+            FROM Vote_Changes
+            WHERE change_id > ?
+            ORDER BY change_id
+            LIMIT ?
+            """;
+
+    // Each post's votes are a range of the UNIQUE(post_id, user_id) index
+    static final String RECOUNT_SQL = """
+            UPDATE Posts
+            SET number_of_likes = (SELECT COALESCE(SUM(vote_type), 0) FROM Post_Votes WHERE post_id = ?)
+            WHERE post_id = ?
+            """;
+
+    private static final String SAVE_HIGH_WATER_MARK_SQL =
+            "UPDATE Reconcile_State SET high_water_mark = ? WHERE job = ?";
+
+    private static final String PRUNE_CHANGES_SQL =
+            "DELETE FROM Vote_Changes WHERE change_id <= ?";
+
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Starts reconciling in the background, shortly after startup and then periodically
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vote-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (SQLException e) {
+                System.err.println("Vote reconciliation failed: " + e.getMessage());
+            }
+        }, INITIAL_DELAY_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background job. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Recounts every post whose votes changed since the last run
+     * @return the number of posts recounted
+     */
+    public static synchronized int reconcile() throws SQLException {
+        long start = System.currentTimeMillis();
+        int recounted = 0;
+
+        try (Connection conn = Database.getConnection()) {
+            int batch;
+            do {
+                batch = reconcileBatch(conn);
+                recounted += Math.max(batch, 0);
+            } while (batch >= 0 && !Thread.currentThread().isInterrupted());
+        }
+
+        if (recounted > 0) {
+            System.out.println("Reconciled vote counts for " + recounted + " post(s) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        return recounted;
+    }
+
+    /**
+     * Recounts the posts in the next BATCH_SIZE change log rows and advances the high-water mark
+     * @return the number of posts recounted, or -1 when the log is fully processed
+     */
+    private static int reconcileBatch(Connection conn) throws SQLException {
+        long highWaterMark = readHighWaterMark(conn);
+        long lastChange = highWaterMark;
+        int rows = 0;
+        Set<Integer> postIds = new LinkedHashSet<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(CHANGES_SQL)) {
+            ps.setLong(1, highWaterMark);
+            ps.setInt(2, BATCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lastChange = rs.getLong("change_id");
+                    postIds.add(rs.getInt("post_id"));
+                    rows++;
+                }
+            }
+        }
+        if (rows == 0) {
+            return -1;
+        }
+
+        // Votes on these posts wait until the recount commits, so the ledger
+        // and the discarded pending deltas describe the same votes
+        List<ReadWriteLock> locked = VoteAggregator.lockStripes(postIds);
+        boolean wasAutoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(RECOUNT_SQL)) {
+                for (int postId : postIds) {
+                    ps.setInt(1, postId);
+                    ps.setInt(2, postId);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(SAVE_HIGH_WATER_MARK_SQL)) {
+                ps.setLong(1, lastChange);
+                ps.setString(2, JOB);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(PRUNE_CHANGES_SQL)) {
+                ps.setLong(1, lastChange);
+                ps.executeUpdate();
+            }
+            conn.commit();
+
+            for (int postId : postIds) {
+                VoteAggregator.discardPending(postId);
+                PostDAO.evictCachedPost(postId);
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(wasAutoCommit);
+            VoteAggregator.unlockStripes(locked);
+        }
+
+        return postIds.size();
+    }
+
+    private static long readHighWaterMark(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(HIGH_WATER_MARK_SQL)) {
+            ps.setString(1, JOB);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong("high_water_mark") : 0;
+            }
+        }
+    }
+}
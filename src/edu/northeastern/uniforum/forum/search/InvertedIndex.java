@@ -0,0 +1,276 @@
+package edu.northeastern.uniforum.forum.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from lowercase words to the ids of the posts containing them.
+ * A post's title, content, tag and the text of its replies are all indexed under the post id.
+ * Queries use the same syntax as the full-text search: every word must match, as a prefix,
+ * and OR between two words matches either one.
+ */
+public class InvertedIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x55464958;   // "UFIX"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    // Words, by shared trigrams, whose edit distance is computed when correcting one query word
+    private static final int FUZZY_CANDIDATES = 50;
+
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final TrigramIndex trigrams = new TrigramIndex();   // over the keys of terms
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Highest post and reply ids already indexed, so a restart only reads newer rows
+    private int lastPostId;
+    private int lastReplyId;
+
+    /**
+     * Indexes a post's own text
+     */
+    public void addPost(int postId, String title, String content, String tag) {
+        lock.writeLock().lock();
+        try {
+            addText(postId, title);
+            addText(postId, content);
+            addText(postId, tag);
+            lastPostId = Math.max(lastPostId, postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a reply's text under the post it belongs to
+     */
+    public void addReply(int postId, int replyId, String content) {
+        lock.writeLock().lock();
+        try {
+            addText(postId, content);
+            lastReplyId = Math.max(lastReplyId, replyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the matching posts, ascending; empty when the text has no words
+     */
+    public int[] search(String text) {
+        List<List<String>> clauses = parse(text);
+        if (clauses.isEmpty()) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] result = null;
+            for (List<String> alternatives : clauses) {
+                // Every term any alternative expands to, merged once
+                List<int[]> lists = new ArrayList<>();
+                for (String word : alternatives) {
+                    addPrefixMatches(word, lists);
+                }
+                int[] matches = PostingList.unionAll(lists);
+                result = result == null ? matches : PostingList.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces each query word that matches no indexed word with the closest indexed word:
+     * within one edit for words of up to four letters, two edits for longer ones.
+     * Among equally close words the one in the most posts wins.
+     * @return the corrected query, or null if no word needed or had a correction
+     */
+    public String correct(String text) {
+        if (text == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            boolean changed = false;
+            List<String> out = new ArrayList<>();
+            for (String token : text.trim().split("\\s+")) {
+                if (token.equals("OR")) {
+                    out.add(token);
+                    continue;
+                }
+                for (String word : words(token)) {
+                    String correction = closestWord(word);
+                    changed |= correction != null;
+                    out.add(correction != null ? correction : word);
+                }
+            }
+            return changed ? String.join(" ", out) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getLastPostId() {
+        return lastPostId;
+    }
+
+    public int getLastReplyId() {
+        return lastReplyId;
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the whole index in a compact binary form
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        // Write lock: writing compacts each list in place
+        lock.writeLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(lastPostId);
+            out.writeInt(lastReplyId);
+            out.writeInt(terms.size());
+            for (Map.Entry<String, PostingList> entry : terms.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo}
+     * @throws IOException if the data is not a snapshot of this version
+     */
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a search index snapshot of version " + SNAPSHOT_VERSION);
+        }
+        InvertedIndex index = new InvertedIndex();
+        index.lastPostId = in.readInt();
+        index.lastReplyId = in.readInt();
+        int termCount = in.readInt();
+        for (int i = 0; i < termCount; i++) {
+            String term = in.readUTF();
+            index.terms.put(term, PostingList.readFrom(in));
+            index.trigrams.add(term);
+        }
+        return index;
+    }
+
+    /**
+     * Splits text into lowercase words, the unit the index is keyed by
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        Matcher word = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (word.find()) {
+            words.add(word.group());
+        }
+        return words;
+    }
+
+    /**
+     * Parses a query into clauses that must all match, each a list of words any one of which may match
+     */
+    static List<List<String>> parse(String text) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (text == null) {
+            return clauses;
+        }
+        boolean pendingOr = false;
+        for (String token : text.trim().split("\\s+")) {
+            if (token.equals("OR")) {
+                pendingOr = !clauses.isEmpty();
+                continue;
+            }
+            List<String> words = words(token);
+            if (words.isEmpty()) {
+                continue;
+            }
+            if (pendingOr) {
+                // The first word joins the previous alternatives; the rest of the token must match too
+                clauses.get(clauses.size() - 1).add(words.get(0));
+                words = words.subList(1, words.size());
+                pendingOr = false;
+            }
+            for (String word : words) {
+                List<String> alternatives = new ArrayList<>();
+                alternatives.add(word);
+                clauses.add(alternatives);
+            }
+        }
+        return clauses;
+    }
+
+    private void addText(int postId, String text) {
+        for (String word : words(text)) {
+            PostingList list = terms.get(word);
+            if (list == null) {
+                list = new PostingList();
+                terms.put(word, list);
+                trigrams.add(word);
+            }
+            list.add(postId);
+        }
+    }
+
+    /**
+     * @return the indexed word closest to a word that matches nothing, or null when the
+     * word already matches (as a prefix), is too short to correct, or has no close word
+     */
+    private String closestWord(String word) {
+        if (word.length() < 3 || !terms.subMap(word, true, word + Character.MAX_VALUE, false).isEmpty()) {
+            return null;
+        }
+        int maxDistance = word.length() <= 4 ? 1 : 2;
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        int bestPosts = -1;
+        for (TrigramIndex.Match match : trigrams.closest(word, maxDistance, FUZZY_CANDIDATES)) {
+            int posts = terms.get(match.word).size();
+            if (match.distance < bestDistance || (match.distance == bestDistance && posts > bestPosts)) {
+                best = match.word;
+                bestDistance = match.distance;
+                bestPosts = posts;
+            }
+        }
+        return best;
+    }
+
+    // Every term starting with the word: the sorted map holds them in one contiguous range
+    private void addPrefixMatches(String word, List<int[]> lists) {
+        for (PostingList list : terms.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            lists.add(list.toArray());
+        }
+    }
+}
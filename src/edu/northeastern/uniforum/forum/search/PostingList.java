@@ -0,0 +1,258 @@
+package edu.northeastern.uniforum.forum.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted set of post ids for one term, stored as varint-encoded gaps.
+ * New posts have the highest ids, so the common add is an append of one small gap.
+ * An id below the last one (a reply to an older post) goes into a short sorted
+ * side array that is merged into the encoded part once it fills up.
+ */
+final class PostingList {
+
+    private static final int MAX_PENDING = 64;
+    private static final int[] NO_IDS = new int[0];
+
+    private byte[] data = new byte[4];
+    private int length;          // bytes used in data
+    private int encodedCount;    // ids in data
+    private int last;            // highest id in data, 0 when empty
+
+    private int[] pending = NO_IDS;
+    private int pendingCount;
+
+    /**
+     * Adds a post id; adding an id that is already present does nothing
+     */
+    void add(int id) {
+        if (id > last) {
+            writeVarint(id - last);
+            last = id;
+            encodedCount++;
+            return;
+        }
+        if (id == last) {
+            return;
+        }
+
+        int at = Arrays.binarySearch(pending, 0, pendingCount, id);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(4, pendingCount * 2));
+        }
+        System.arraycopy(pending, at, pending, at + 1, pendingCount - at);
+        pending[at] = id;
+        pendingCount++;
+
+        if (pendingCount >= MAX_PENDING) {
+            compact();
+        }
+    }
+
+    /**
+     * @return every id in the list, ascending and without duplicates
+     */
+    int[] toArray() {
+        int[] encoded = decode();
+        if (pendingCount == 0) {
+            return encoded;
+        }
+        return union(encoded, encoded.length, pending, pendingCount);
+    }
+
+    /**
+     * @return an upper bound on the number of ids, exact once compacted
+     */
+    int size() {
+        return encodedCount + pendingCount;
+    }
+
+    /**
+     * Rewrites the list with the side array merged in
+     */
+    void compact() {
+        if (pendingCount == 0) {
+            return;
+        }
+        int[] ids = toArray();
+        data = new byte[Math.max(4, ids.length * 2)];
+        length = 0;
+        encodedCount = 0;
+        last = 0;
+        pending = NO_IDS;
+        pendingCount = 0;
+        for (int id : ids) {
+            add(id);
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        compact();
+        out.writeInt(encodedCount);
+        out.writeInt(last);
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+
+    static PostingList readFrom(DataInputStream in) throws IOException {
+        PostingList list = new PostingList();
+        list.encodedCount = in.readInt();
+        list.last = in.readInt();
+        list.length = in.readInt();
+        list.data = new byte[Math.max(4, list.length)];
+        in.readFully(list.data, 0, list.length);
+        return list;
+    }
+
+    /**
+     * Merges two ascending arrays into one without duplicates
+     */
+    static int[] union(int[] a, int aCount, int[] b, int bCount) {
+        int[] out = new int[aCount + bCount];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < aCount || j < bCount) {
+            int next;
+            if (j >= bCount || (i < aCount && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= aCount || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            out[n++] = next;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Merges any number of ascending arrays into one without duplicates, in a single pass:
+     * a min-heap holds each array's next id, so k arrays with N ids in total cost O(N log k)
+     * rather than the O(k N) of merging them in one at a time
+     */
+    static int[] unionAll(List<int[]> lists) {
+        if (lists.isEmpty()) {
+            return NO_IDS;
+        }
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int total = 0;
+        int[][] arrays = lists.toArray(new int[0][]);
+        int[] pos = new int[arrays.length];
+        // Heap of indexes into arrays, ordered by each array's id at pos
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int k = 0; k < arrays.length; k++) {
+            total += arrays[k].length;
+            if (arrays[k].length > 0) {
+                heap[size++] = k;
+            }
+        }
+        for (int k = size / 2 - 1; k >= 0; k--) {
+            siftDown(heap, size, k, arrays, pos);
+        }
+
+        int[] out = new int[total];
+        int n = 0;
+        while (size > 0) {
+            int top = heap[0];
+            int id = arrays[top][pos[top]++];
+            if (n == 0 || out[n - 1] != id) {
+                out[n++] = id;
+            }
+            if (pos[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, size, 0, arrays, pos);
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static void siftDown(int[] heap, int size, int k, int[][] arrays, int[] pos) {
+        while (true) {
+            int smallest = k;
+            int left = 2 * k + 1;
+            int right = left + 1;
+            if (left < size && head(heap[left], arrays, pos) < head(heap[smallest], arrays, pos)) {
+                smallest = left;
+            }
+            if (right < size && head(heap[right], arrays, pos) < head(heap[smallest], arrays, pos)) {
+                smallest = right;
+            }
+            if (smallest == k) {
+                return;
+            }
+            int swap = heap[k];
+            heap[k] = heap[smallest];
+            heap[smallest] = swap;
+            k = smallest;
+        }
+    }
+
+    private static int head(int array, int[][] arrays, int[] pos) {
+        return arrays[array][pos[array]];
+    }
+
+    /**
+     * Keeps the ids present in both ascending arrays
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private int[] decode() {
+        int[] ids = new int[encodedCount];
+        int pos = 0;
+        int id = 0;
+        for (int k = 0; k < encodedCount; k++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += gap;
+            ids[k] = id;
+        }
+        return ids;
+    }
+
+    // 7 bits per byte, high bit set on every byte but the last
+    private void writeVarint(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
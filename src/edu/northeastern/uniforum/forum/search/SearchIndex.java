@@ -0,0 +1,158 @@
+package edu.northeastern.uniforum.forum.search;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The application's shared {@link InvertedIndex}, for SQLite builds without FTS5.
+ * It is loaded on first use from the snapshot in db/ and brought up to date with the
+ * posts and replies written since; the DAOs add new rows to it as they insert them,
+ * and the snapshot is rewritten when the application exits.
+ */
+public class SearchIndex {
+
+    private static final Path SNAPSHOT = Paths.get("db", "search_index.bin");
+
+    // Rowid ranges, so catching up after a restart reads only the new rows
+    private static final String NEW_POSTS_SQL =
+            "SELECT post_id, title, content, tag FROM Posts WHERE post_id > ? ORDER BY post_id";
+
+    private static final String NEW_REPLIES_SQL =
+            "SELECT reply_id, post_id, content FROM Replies WHERE reply_id > ? ORDER BY reply_id";
+
+    private static InvertedIndex index;
+    private static boolean dirty;
+
+    /**
+     * @return the ids of the posts matching the query, ascending
+     */
+    public static int[] search(String text) throws SQLException {
+        return get().search(text);
+    }
+
+    /**
+     * Corrects misspelled words against the indexed vocabulary
+     * @return the corrected query, or null if nothing was corrected
+     */
+    public static String correct(String text) throws SQLException {
+        return get().correct(text);
+    }
+
+    /**
+     * Loads the index now rather than on the first search
+     */
+    public static void preload() throws SQLException {
+        get();
+    }
+
+    /**
+     * Adds a newly created post, if the index has been loaded; otherwise the next load reads it
+     */
+    public static synchronized void postCreated(int postId, String title, String content, String tag) {
+        if (index != null) {
+            index.addPost(postId, title, content, tag);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Adds a newly created reply to its post's entry, if the index has been loaded
+     */
+    public static synchronized void replyCreated(int postId, int replyId, String content) {
+        if (index != null) {
+            index.addReply(postId, replyId, content);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Saves the snapshot if anything was added since it was loaded. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        if (index == null || !dirty) {
+            return;
+        }
+        try {
+            save(index);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Could not save search index: " + e.getMessage());
+        }
+    }
+
+    private static synchronized InvertedIndex get() throws SQLException {
+        if (index == null) {
+            long start = System.currentTimeMillis();
+            InvertedIndex loaded = load();
+            int added = catchUp(loaded);
+            index = loaded;
+            dirty = added > 0;
+            System.out.println("Search index ready with " + loaded.termCount() + " terms ("
+                    + added + " new row(s) indexed) in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return index;
+    }
+
+    private static InvertedIndex load() {
+        if (Files.isRegularFile(SNAPSHOT)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(SNAPSHOT)))) {
+                return InvertedIndex.readFrom(in);
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable search index snapshot: " + e.getMessage());
+            }
+        }
+        return new InvertedIndex();
+    }
+
+    /**
+     * Indexes every post and reply newer than the snapshot
+     * @return the number of rows indexed
+     */
+    private static int catchUp(InvertedIndex target) throws SQLException {
+        int added = 0;
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(NEW_POSTS_SQL)) {
+                ps.setInt(1, target.getLastPostId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        target.addPost(rs.getInt("post_id"), rs.getString("title"),
+                                rs.getString("content"), rs.getString("tag"));
+                        added++;
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(NEW_REPLIES_SQL)) {
+                ps.setInt(1, target.getLastReplyId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        target.addReply(rs.getInt("post_id"), rs.getInt("reply_id"), rs.getString("content"));
+                        added++;
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    // Written to a temporary file first so a crash never leaves a half-written snapshot
+    private static void save(InvertedIndex target) throws IOException {
+        Path temp = SNAPSHOT.resolveSibling(SNAPSHOT.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            target.writeTo(out);
+        }
+        Files.move(temp, SNAPSHOT, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
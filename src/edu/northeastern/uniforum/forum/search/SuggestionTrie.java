@@ -0,0 +1,223 @@
+package edu.northeastern.uniforum.forum.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Radix tree of search suggestions for prefix completion.
+ * Every node keeps the best few suggestions found below it, ordered by weight,
+ * so a lookup only walks the typed prefix and returns that node's list:
+ * the cost depends on the length of the prefix, not on how many suggestions exist.
+ */
+public class SuggestionTrie {
+
+    public enum Kind { POST, TAG, COMMUNITY, USER }
+
+    public static class Suggestion {
+        public final String text;     // as displayed
+        public final Kind kind;
+        public long weight;           // higher is suggested first
+
+        Suggestion(String text, Kind kind) {
+            this.text = text;
+            this.kind = kind;
+        }
+    }
+
+    private static final class Node {
+        String label;                       // characters on the edge into this node
+        char[] firsts = new char[0];        // first label character of each child, sorted
+        Node[] children = new Node[0];
+        Suggestion[] top = new Suggestion[0];
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<String, Suggestion> byKey = new HashMap<>();   // one entry per kind and text
+    private final Map<Suggestion, List<String>> keysOf = new HashMap<>();
+
+    /**
+     * @param topK the number of suggestions kept, and returned, per prefix
+     */
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Adds weight to a suggestion, creating it on first use; negative weights count as 0.
+     * It is reachable from the start of its text and, for post titles, from the start
+     * of every later word as well.
+     */
+    public synchronized void add(String text, Kind kind, long weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String display = text.trim();
+        String id = kind + ":" + display.toLowerCase(Locale.ROOT);
+        Suggestion suggestion = byKey.get(id);
+        if (suggestion == null) {
+            suggestion = new Suggestion(display, kind);
+            byKey.put(id, suggestion);
+            keysOf.put(suggestion, keysFor(display, kind));
+        }
+        suggestion.weight += Math.max(weight, 0);
+
+        for (String key : keysOf.get(suggestion)) {
+            insert(key, suggestion);
+        }
+    }
+
+    /**
+     * @return up to topK suggestions whose text, or a word of whose title, starts with the prefix, best first
+     */
+    public synchronized List<Suggestion> complete(String prefix) {
+        if (prefix == null) {
+            return new ArrayList<>();
+        }
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = child(node, key.charAt(i));
+            if (child == null) {
+                return new ArrayList<>();
+            }
+            String label = child.label;
+            int remaining = key.length() - i;
+            if (remaining <= label.length()) {
+                // The prefix ends on this edge
+                return label.startsWith(key.substring(i)) ? new ArrayList<>(Arrays.asList(child.top)) : new ArrayList<>();
+            }
+            if (!key.startsWith(label, i)) {
+                return new ArrayList<>();
+            }
+            i += label.length();
+            node = child;
+        }
+        return new ArrayList<>(Arrays.asList(node.top));
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    private List<String> keysFor(String display, Kind kind) {
+        String lower = display.toLowerCase(Locale.ROOT);
+        List<String> keys = new ArrayList<>();
+        keys.add(lower);
+        if (kind == Kind.POST) {
+            for (int i = 1; i < lower.length(); i++) {
+                if (lower.charAt(i - 1) == ' ' && lower.charAt(i) != ' ') {
+                    keys.add(lower.substring(i));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private void insert(String key, Suggestion suggestion) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            Node child = child(node, c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                addChild(node, child);
+                offer(child, suggestion);
+                return;
+            }
+
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: the shared part becomes a new node above the old child
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.firsts = new char[] { child.label.charAt(0) };
+                middle.children = new Node[] { child };
+                middle.top = child.top.clone();
+                replaceChild(node, c, middle);
+                child = middle;
+            }
+            offer(child, suggestion);
+            i += common;
+            node = child;
+        }
+    }
+
+    // Moves the suggestion to its place in the node's best-first list, if it belongs there
+    private void offer(Node node, Suggestion suggestion) {
+        Suggestion[] top = node.top;
+        int at = -1;
+        for (int k = 0; k < top.length; k++) {
+            if (top[k] == suggestion) {
+                at = k;
+                break;
+            }
+        }
+        if (at < 0) {
+            if (top.length < topK) {
+                top = Arrays.copyOf(top, top.length + 1);
+                at = top.length - 1;
+            } else if (top[top.length - 1].weight < suggestion.weight) {
+                at = top.length - 1;
+            } else {
+                return;
+            }
+            top[at] = suggestion;
+        }
+        // Weights only grow, so the entry can only move towards the front
+        while (at > 0 && top[at - 1].weight < top[at].weight) {
+            Suggestion swap = top[at - 1];
+            top[at - 1] = top[at];
+            top[at] = swap;
+            at--;
+        }
+        node.top = top;
+    }
+
+    private static Node child(Node node, char c) {
+        int at = Arrays.binarySearch(node.firsts, c);
+        return at >= 0 ? node.children[at] : null;
+    }
+
+    private static void addChild(Node node, Node child) {
+        char c = child.label.charAt(0);
+        int at = -Arrays.binarySearch(node.firsts, c) - 1;
+        char[] firsts = new char[node.firsts.length + 1];
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.firsts, 0, firsts, 0, at);
+        System.arraycopy(node.children, 0, children, 0, at);
+        firsts[at] = c;
+        children[at] = child;
+        System.arraycopy(node.firsts, at, firsts, at + 1, node.firsts.length - at);
+        System.arraycopy(node.children, at, children, at + 1, node.children.length - at);
+        node.firsts = firsts;
+        node.children = children;
+    }
+
+    private static void replaceChild(Node node, char c, Node replacement) {
+        node.children[Arrays.binarySearch(node.firsts, c)] = replacement;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int n = Math.min(label.length(), key.length() - from);
+        int k = 0;
+        while (k < n && label.charAt(k) == key.charAt(from + k)) {
+            k++;
+        }
+        return k;
+    }
+}
@@ -0,0 +1,155 @@
+package edu.northeastern.uniforum.forum.search;
+
+import edu.northeastern.uniforum.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application's shared {@link SuggestionTrie} for the search field: post titles,
+ * tags, community names and usernames. A post counts one plus its upvotes towards its
+ * title, its tag, its community and its author, so popular content is suggested first.
+ * Built on first use; new posts are added to it as PostDAO creates them.
+ */
+public class Suggestions {
+
+    private static final int TOP_K = 8;
+
+    private static final String POSTS_SQL =
+            "SELECT title, tag, number_of_likes, community_id, user_id FROM Posts";
+
+    private static final String COMMUNITIES_SQL =
+            "SELECT community_id, community_name FROM Communities";
+
+    private static final String USERS_SQL =
+            "SELECT user_id, user_name FROM Users";
+
+    // For communities and users created after the build
+    private static final String COMMUNITY_NAME_SQL =
+            "SELECT community_name FROM Communities WHERE community_id = ?";
+
+    private static final String USER_NAME_SQL =
+            "SELECT user_name FROM Users WHERE user_id = ?";
+
+    private static SuggestionTrie trie;
+
+    // Names by id, so a new post can be credited to its community and author
+    private static final Map<Integer, String> communityNames = new HashMap<>();
+    private static final Map<Integer, String> userNames = new HashMap<>();
+
+    /**
+     * @return the best completions of what the user has typed so far
+     */
+    public static List<SuggestionTrie.Suggestion> complete(String prefix) throws SQLException {
+        return get().complete(prefix);
+    }
+
+    /**
+     * Builds the suggestions now rather than on the first keystroke
+     */
+    public static void preload() throws SQLException {
+        get();
+    }
+
+    /**
+     * Adds a newly created post, if the suggestions have been built; otherwise the build reads it.
+     * A community or author that did not exist when the suggestions were built is looked up,
+     * without holding the lock, so completions are not held up by the query.
+     */
+    public static void postCreated(int communityId, int userId, String title, String tag) {
+        synchronized (Suggestions.class) {
+            if (trie == null) {
+                return;
+            }
+        }
+        String community = nameOf(communityId, COMMUNITY_NAME_SQL, communityNames);
+        String author = nameOf(userId, USER_NAME_SQL, userNames);
+        synchronized (Suggestions.class) {
+            addPost(trie, title, tag, 0, community, author);
+        }
+    }
+
+    // The name by id, read from the database and remembered if it is not known yet; null if it cannot be read
+    private static String nameOf(int id, String sql, Map<Integer, String> names) {
+        synchronized (Suggestions.class) {
+            String known = names.get(id);
+            if (known != null) {
+                return known;
+            }
+        }
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    String name = rs.getString(1);
+                    synchronized (Suggestions.class) {
+                        names.put(id, name);
+                    }
+                    return name;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not look up a name for search suggestions: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static synchronized SuggestionTrie get() throws SQLException {
+        if (trie == null) {
+            long start = System.currentTimeMillis();
+            SuggestionTrie built = new SuggestionTrie(TOP_K);
+
+            try (Connection conn = Database.getConnection()) {
+                readNames(conn, COMMUNITIES_SQL, "community_id", "community_name", communityNames);
+                readNames(conn, USERS_SQL, "user_id", "user_name", userNames);
+
+                // Communities and users without posts are still suggested, after the active ones
+                for (String name : communityNames.values()) {
+                    built.add(name, SuggestionTrie.Kind.COMMUNITY, 0);
+                }
+                for (String name : userNames.values()) {
+                    built.add(name, SuggestionTrie.Kind.USER, 0);
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(POSTS_SQL);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        addPost(built, rs.getString("title"), rs.getString("tag"), rs.getInt("number_of_likes"),
+                                communityNames.get(rs.getInt("community_id")), userNames.get(rs.getInt("user_id")));
+                    }
+                }
+            }
+
+            trie = built;
+            System.out.println("Search suggestions built with " + built.size() + " entries in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        return trie;
+    }
+
+    private static void addPost(SuggestionTrie target, String title, String tag, int likes,
+                                String community, String author) {
+        long weight = 1 + Math.max(likes, 0);
+        target.add(title, SuggestionTrie.Kind.POST, weight);
+        target.add(tag, SuggestionTrie.Kind.TAG, weight);
+        target.add(community, SuggestionTrie.Kind.COMMUNITY, weight);
+        target.add(author, SuggestionTrie.Kind.USER, weight);
+    }
+
+    private static void readNames(Connection conn, String sql, String idColumn, String nameColumn,
+                                  Map<Integer, String> names) throws SQLException {
+        names.clear();
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                names.put(rs.getInt(idColumn), rs.getString(nameColumn));
+            }
+        }
+    }
+}
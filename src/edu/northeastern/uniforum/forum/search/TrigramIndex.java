@@ -0,0 +1,158 @@
+package edu.northeastern.uniforum.forum.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over the words of an {@link InvertedIndex}, for finding the indexed
+ * words closest to a misspelled one. Candidates are the words sharing the most
+ * trigrams with it (Jaccard similarity); only those are compared by edit distance,
+ * so a lookup never computes the distance to the whole vocabulary.
+ */
+final class TrigramIndex {
+
+    private final List<String> words = new ArrayList<>();
+    private final Map<Long, WordIds> postings = new HashMap<>();
+
+    // Ids of the words containing one trigram, in insertion order
+    private static final class WordIds {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * A word close to the one looked up
+     */
+    static final class Match {
+        final String word;
+        final int distance;
+        final double similarity;
+
+        Match(String word, int distance, double similarity) {
+            this.word = word;
+            this.distance = distance;
+            this.similarity = similarity;
+        }
+    }
+
+    void add(String word) {
+        int id = words.size();
+        words.add(word);
+        for (long trigram : trigrams(word)) {
+            postings.computeIfAbsent(trigram, t -> new WordIds()).add(id);
+        }
+    }
+
+    /**
+     * Finds the indexed words within maxDistance edits of a word
+     * @param candidates how many of the most similar words, by shared trigrams, to check the distance of
+     * @return the matches, closest first, then most similar
+     */
+    List<Match> closest(String word, int maxDistance, int candidates) {
+        long[] query = trigrams(word);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long trigram : query) {
+            WordIds containing = postings.get(trigram);
+            if (containing == null) {
+                continue;
+            }
+            for (int k = 0; k < containing.size; k++) {
+                int id = containing.ids[k];
+                // Words whose length alone rules them out are not counted
+                if (Math.abs(words.get(id).length() - word.length()) <= maxDistance) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            String other = words.get(entry.getKey());
+            int common = entry.getValue();
+            double jaccard = (double) common / (query.length + trigramCount(other) - common);
+            ranked.add(new Match(other, -1, jaccard));
+        }
+        ranked.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+
+        List<Match> matches = new ArrayList<>();
+        for (Match candidate : ranked.subList(0, Math.min(candidates, ranked.size()))) {
+            int distance = levenshtein(word, candidate.word, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new Match(candidate.word, distance, candidate.similarity));
+            }
+        }
+        matches.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : Double.compare(b.similarity, a.similarity));
+        return matches;
+    }
+
+    /**
+     * Levenshtein distance that also counts swapping two adjacent letters as one edit
+     * ("recieve" for "receive"), giving up as soon as it must exceed max
+     * @return the distance, or max + 1 if it is larger than max
+     */
+    static int levenshtein(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] twoBack = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], twoBack[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Distinct trigrams of the word padded with a boundary mark on each side, three chars packed per long
+    private static long[] trigrams(String word) {
+        String padded = "\u0001" + word + "\u0001";
+        long[] out = new long[Math.max(0, padded.length() - 2)];
+        int n = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long trigram = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            boolean seen = false;
+            for (int k = 0; k < n && !seen; k++) {
+                seen = out[k] == trigram;
+            }
+            if (!seen) {
+                out[n++] = trigram;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int trigramCount(String word) {
+        return trigrams(word).length;
+    }
+}
@@ -0,0 +1,15 @@
+package edu.northeastern.uniforum.forum.util;
+
+/**
+ * A controller whose view {@link SceneManager} keeps after navigating away and shows
+ * again instead of reloading its FXML. Each visit is {@link #reset()} followed by the
+ * controller's usual initData/setCurrentUser call with the new visit's data.
+ */
+public interface CachedView {
+
+    /**
+     * Clears whatever the previous visit left behind (user data, typed text, open dialogs,
+     * pending requests) so the view looks freshly loaded. Called before each reuse.
+     */
+    void reset();
+}
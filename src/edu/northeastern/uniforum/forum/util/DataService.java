@@ -0,0 +1,285 @@
+package edu.northeastern.uniforum.forum.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.northeastern.uniforum.forum.dao.PostDAO;
+import edu.northeastern.uniforum.forum.dao.PostQuery;
+import edu.northeastern.uniforum.forum.dao.QueryCanceller;
+import edu.northeastern.uniforum.forum.dao.ReplyDAO;
+import edu.northeastern.uniforum.forum.dao.UserDAO;
+import edu.northeastern.uniforum.forum.model.User;
+import edu.northeastern.uniforum.forum.search.SearchIndex;
+import edu.northeastern.uniforum.forum.search.SuggestionTrie;
+import edu.northeastern.uniforum.forum.search.Suggestions;
+import javafx.application.Platform;
+
+/**
+ * Asynchronous access to the DAOs for the controllers. Every call runs on its own
+ * virtual thread and returns a future that completes on the JavaFX Application Thread,
+ * so whatever is chained onto it may update the UI directly, and a slow disk never
+ * freezes the window. Identical feed and community-list requests made while one
+ * is still running share its result instead of querying again. Password hashing is
+ * CPU-bound, so it runs on a small pool of its own rather than on a virtual thread each.
+ */
+public class DataService {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("data-", 0).factory());
+
+    // Leaves a core for the JavaFX thread, so a burst of logins cannot starve the UI
+    private static final ExecutorService HASHING = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            Thread.ofPlatform().name("bcrypt-", 0).daemon().factory());
+
+    // Shared requests still running, by what they fetch
+    private static final Map<List<Object>, SharedRequest> inFlight = new ConcurrentHashMap<>();
+
+    private final PostDAO postDAO = new PostDAO();
+    private final ReplyDAO replyDAO = new ReplyDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    /**
+     * Database work to run in the background
+     */
+    @FunctionalInterface
+    public interface DataCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Database work to run in the background that stops early when its canceller is cancelled
+     */
+    @FunctionalInterface
+    private interface CancellableCall<T> {
+        T call(QueryCanceller canceller) throws Exception;
+    }
+
+    /**
+     * A shared request still running, and how many of the futures handed out for it are not cancelled
+     */
+    private static final class SharedRequest {
+        final CompletableFuture<?> result;
+        final QueryCanceller canceller;
+        final AtomicInteger callers = new AtomicInteger();
+
+        SharedRequest(CompletableFuture<?> result, QueryCanceller canceller) {
+            this.result = result;
+            this.canceller = canceller;
+        }
+    }
+
+    /**
+     * One page of a feed together with the user's votes on its posts
+     */
+    public static class FeedPage {
+        public List<PostDAO.PostDTO> posts = new ArrayList<>();
+        public String nextCursor;
+        public Map<Integer, Integer> userVotes = new HashMap<>();
+    }
+
+    /**
+     * Runs the call on a virtual thread
+     * @return a future completed on the JavaFX thread with the call's result, or exceptionally with what it threw
+     */
+    public static <T> CompletableFuture<T> supply(DataCall<T> call) {
+        return supply(EXECUTOR, call);
+    }
+
+    private static <T> CompletableFuture<T> supply(ExecutorService executor, DataCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                T value = call.call();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Throwable e) {
+                Platform.runLater(() -> result.completeExceptionally(e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Like {@link #supply}, but while a call with an equal key is running its result is shared.
+     * Each caller gets its own future, so cancelling one does not affect the others; once all
+     * of them are cancelled the call's query is cancelled too, handing back its connection.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> supplyShared(List<Object> key, CancellableCall<T> call) {
+        SharedRequest shared = inFlight.computeIfAbsent(key, k -> {
+            QueryCanceller canceller = new QueryCanceller();
+            SharedRequest started = new SharedRequest(supply(() -> call.call(canceller)), canceller);
+            // Completes later on the JavaFX thread, never inside computeIfAbsent
+            started.result.whenComplete((value, e) -> inFlight.remove(k, started));
+            return started;
+        });
+        shared.callers.incrementAndGet();
+        CompletableFuture<T> copy = ((CompletableFuture<T>) shared.result).copy();
+        copy.whenComplete((value, e) -> {
+            if (copy.isCancelled() && shared.callers.decrementAndGet() == 0) {
+                // Nobody wants the result any more; a new equal request starts a query of its own
+                inFlight.remove(key, shared);
+                shared.canceller.cancel();
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * Fetches a page of a feed and, if a user is given, their votes on its posts.
+     * The query must not be changed once passed in.
+     * @param cursor the previous page's nextCursor, or null for the first page
+     */
+    public CompletableFuture<FeedPage> getFeedPage(PostQuery query, String cursor, Integer userId) {
+        List<Object> key = Arrays.asList("feed", query.getKeyword(), query.getCommunity(), query.getTag(),
+                query.getJoinedByUserId(), query.getSort(), query.getLimit(), cursor, userId);
+        return supplyShared(key, canceller -> {
+            PostDAO.PostPage page = postDAO.findPosts(query, cursor, canceller);
+            FeedPage feed = new FeedPage();
+            feed.posts = page.posts;
+            feed.nextCursor = page.nextCursor;
+            if (userId != null && !page.posts.isEmpty() && !canceller.isCancelled()) {
+                List<Integer> postIds = new ArrayList<>();
+                for (PostDAO.PostDTO post : page.posts) {
+                    postIds.add(post.postId);
+                }
+                feed.userVotes = postDAO.getUserVotes(userId, postIds);
+            }
+            return feed;
+        });
+    }
+
+    /**
+     * @return the query with misspelled words corrected, or null if nothing was corrected
+     */
+    public CompletableFuture<String> correctSearch(String keyword) {
+        return supply(() -> SearchIndex.correct(keyword));
+    }
+
+    /**
+     * @return the best search-field completions of the prefix; builds the suggestions on first use
+     */
+    public CompletableFuture<List<SuggestionTrie.Suggestion>> completeSearch(String prefix) {
+        return supply(() -> Suggestions.complete(prefix));
+    }
+
+    public CompletableFuture<List<PostDAO.CommunityDTO>> getAllCommunities() {
+        return supplyShared(List.of("communities"), canceller -> postDAO.getAllCommunities());
+    }
+
+    public CompletableFuture<List<String>> getAllTags() {
+        return supplyShared(List.of("tags"), canceller -> postDAO.getAllTags());
+    }
+
+    public CompletableFuture<PostDAO.PostDTO> getPostById(int postId) {
+        return supply(() -> postDAO.getPostById(postId));
+    }
+
+    public CompletableFuture<PostDAO.VoteResult> castVote(int postId, int userId, int direction) {
+        return supply(() -> postDAO.castVote(postId, userId, direction));
+    }
+
+    public CompletableFuture<Void> createPost(int communityId, int userId, String title, String content, String tag) {
+        return supply(() -> {
+            postDAO.createPost(communityId, userId, title, content, tag);
+            return null;
+        });
+    }
+
+    public CompletableFuture<ReplyDAO.ReplyPage> getRootReplies(int postId, String cursor, int limit) {
+        return supply(() -> replyDAO.getRootReplies(postId, cursor, limit));
+    }
+
+    public CompletableFuture<List<ReplyDAO.ReplyDTO>> getSubThread(ReplyDAO.ReplyDTO reply) {
+        return supply(() -> replyDAO.getSubThread(reply));
+    }
+
+    public CompletableFuture<Void> createReply(int postId, int userId, String content, Integer parentReplyId) {
+        return supply(() -> {
+            replyDAO.createReply(postId, userId, content, parentReplyId);
+            return null;
+        });
+    }
+
+    /**
+     * @return the user, or null if there is none with that name
+     */
+    public CompletableFuture<User> getUserByUsername(String username) {
+        return supply(() -> userDAO.getUserByUsername(username));
+    }
+
+    /**
+     * Reads a user from the database, bypassing the user cache, and checks their password,
+     * replacing the stored hash in the background if it was made at a lower cost than
+     * {@link PasswordUtil} now uses
+     * @return the user, or null if the username or password is wrong
+     */
+    public CompletableFuture<User> login(String username, String password) {
+        return supply(() -> {
+            User user = userDAO.getUserForLogin(username);
+            if (user == null || !HASHING.submit(() -> PasswordUtil.checkPassword(password, user.getPasswordHash())).get()) {
+                return null;
+            }
+            if (PasswordUtil.needsRehash(user.getPasswordHash())) {
+                HASHING.execute(() -> rehash(user.getUserId(), password));
+            }
+            return user;
+        });
+    }
+
+    private void rehash(int userId, String password) {
+        if (userDAO.updatePassword(userId, PasswordUtil.hashPassword(password))) {
+            System.out.println("Rehashed the password of user " + userId + " at the calibrated BCrypt cost");
+        }
+    }
+
+    public CompletableFuture<String> hashPassword(String password) {
+        return supply(HASHING, () -> PasswordUtil.hashPassword(password));
+    }
+
+    public CompletableFuture<Boolean> checkPassword(String password, String storedHash) {
+        return supply(HASHING, () -> PasswordUtil.checkPassword(password, storedHash));
+    }
+
+    public CompletableFuture<Boolean> registerUser(User user) {
+        return supply(() -> userDAO.registerUser(user));
+    }
+
+    public CompletableFuture<Boolean> hasUserJoinedCommunities(int userId) {
+        return supply(() -> userDAO.hasUserJoinedCommunities(userId));
+    }
+
+    public CompletableFuture<List<Integer>> getUserCommunities(int userId) {
+        return supply(() -> userDAO.getUserCommunities(userId));
+    }
+
+    public CompletableFuture<Boolean> updateUserCommunities(int userId, List<Integer> communityIds) {
+        List<Integer> ids = new ArrayList<>(communityIds);
+        return supply(() -> userDAO.updateUserCommunities(userId, ids));
+    }
+
+    /**
+     * See {@link UserDAO#updateUser}; null arguments leave the field unchanged
+     */
+    public CompletableFuture<Boolean> updateUser(int userId, String newUsername, String newEmail, String newPasswordHash,
+                                                 String newLinkedinUrl, String newGithubUrl, String newDepartment) {
+        return supply(() -> userDAO.updateUser(userId, newUsername, newEmail, newPasswordHash,
+                newLinkedinUrl, newGithubUrl, newDepartment));
+    }
+
+    /**
+     * @return the exception a failed future completed with, without the CompletionException wrapper
+     */
+    public static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
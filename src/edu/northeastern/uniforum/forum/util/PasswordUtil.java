@@ -2,18 +2,46 @@
 
 package edu.northeastern.uniforum.forum.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
 import org.mindrot.jbcrypt.BCrypt; 
 
+/**
+ * BCrypt hashing of user passwords. The cost factor is calibrated on the first start so
+ * that hashing one password takes about TARGET_MILLIS on this machine, and kept in
+ * db/bcrypt.properties for later starts; delete that file to calibrate again. A stored
+ * hash made at a lower cost is replaced on the user's next successful login.
+ * Each call takes that long, so callers run it off the JavaFX thread.
+ */
 public class PasswordUtil {
 
+    // BCrypt's default cost, never gone below; each step doubles the time
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 15;
+    private static final long TARGET_MILLIS = 250;
+
+    // Cheap enough to time a few runs of at startup
+    private static final int PROBE_COST = 8;
+
+    private static final Path COST_FILE = Paths.get("db", "bcrypt.properties");
+
+    private static volatile int cost = MIN_COST;
+    private static volatile boolean calibrated;
+
     /**
      * Hashes a plaintext password using the BCrypt algorithm.
      * @param plaintextPassword The password provided by the user during registration.
      * @return The securely hashed password string.
      */
     public static String hashPassword(String plaintextPassword) {
-        // Generates a random salt and hashes the password 
-        return BCrypt.hashpw(plaintextPassword, BCrypt.gensalt());
+        // Generates a random salt and hashes the password at the calibrated cost
+        return BCrypt.hashpw(plaintextPassword, BCrypt.gensalt(cost));
     }
 
     /**
@@ -27,4 +55,92 @@ public class PasswordUtil {
         // (which contains the salt).
         return BCrypt.checkpw(plaintextPassword, storedHash);
     }
+
+    /**
+     * Hashes and checks a throwaway password at the lowest cost a number of times,
+     * so BCrypt's code is already compiled when the first user logs in.
+     */
+    public static void warmUp() {
+        String hash = BCrypt.hashpw("warm-up", BCrypt.gensalt(4));
+        for (int i = 0; i < 20; i++) {
+            BCrypt.checkpw("warm-up", hash);
+        }
+    }
+
+    /**
+     * Sets the cost new hashes are made at: the one kept in db/bcrypt.properties, or else the
+     * one at which hashing a password takes closest to TARGET_MILLIS, from the fastest of a few
+     * hashes at a low cost, which is then kept. Run once at startup, after {@link #warmUp()} and
+     * while nothing else keeps the CPU busy, or the measured time and so the cost come out wrong.
+     * @return the cost new hashes are made at
+     */
+    public static int calibrate() {
+        Integer saved = savedCost();
+        if (saved != null) {
+            cost = saved;
+            calibrated = true;
+            System.out.println("BCrypt cost " + cost + " (from " + COST_FILE + ")");
+            return cost;
+        }
+
+        String salt = BCrypt.gensalt(PROBE_COST);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        double probeMillis = Math.max(fastest, 1) / 1_000_000.0;
+        int steps = (int) Math.round(Math.log(TARGET_MILLIS / probeMillis) / Math.log(2));
+        cost = Math.max(MIN_COST, Math.min(MAX_COST, PROBE_COST + steps));
+        calibrated = true;
+        System.out.printf("BCrypt cost %d (cost %d took %.1f ms, target %d ms)%n", cost, PROBE_COST, probeMillis, TARGET_MILLIS);
+        saveCost(cost);
+        return cost;
+    }
+
+    /**
+     * @return the cost kept by an earlier calibration, or null if there is none or it is not valid
+     */
+    private static Integer savedCost() {
+        if (!Files.isRegularFile(COST_FILE)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(COST_FILE)) {
+            props.load(in);
+            int saved = Integer.parseInt(props.getProperty("cost", "").trim());
+            return saved >= MIN_COST && saved <= MAX_COST ? saved : null;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read " + COST_FILE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void saveCost(int cost) {
+        Properties props = new Properties();
+        props.setProperty("cost", Integer.toString(cost));
+        try (OutputStream out = Files.newOutputStream(COST_FILE)) {
+            props.store(out, "BCrypt cost calibrated for this machine; delete to calibrate again");
+        } catch (IOException e) {
+            System.err.println("Could not save " + COST_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a stored hash was made at a lower cost than new ones are, so it should be
+     * replaced once the password is known. A hash at a higher cost is kept, so a user's
+     * hash never gets weaker. Always false until the cost has been calibrated.
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (!calibrated || storedHash == null || storedHash.length() < 7) {
+            return false;
+        }
+        try {
+            // "$2a$10$..." - the cost is the two digits after the version
+            return Integer.parseInt(storedHash.substring(4, 6)) < cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package edu.northeastern.uniforum.forum.util;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import application.Main;
+import edu.northeastern.uniforum.forum.controller.CourseSelectionController;
 import edu.northeastern.uniforum.forum.controller.DashboardController;
 import edu.northeastern.uniforum.forum.controller.ForumController;
 import edu.northeastern.uniforum.forum.controller.SettingsController;
@@ -9,10 +12,42 @@ import edu.northeastern.uniforum.forum.model.User;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
 import javafx.stage.Stage;
 
 public class SceneManager {
-	
+
+	public static final String FORUM_VIEW = "/edu/northeastern/uniforum/forum/view/forum.fxml";
+	public static final String SETTINGS_VIEW = "/edu/northeastern/uniforum/forum/view/SettingsView.fxml";
+	public static final String COURSE_SELECTION_VIEW = "/edu/northeastern/uniforum/forum/view/CourseSelection.fxml";
+
+	// Each cached view holds a whole scene graph, so only the most recently used few are kept
+	private static final int MAX_CACHED_VIEWS = 4;
+
+	/**
+	 * A parsed view and its controller, kept for reuse
+	 */
+	public static final class View {
+		public final Parent root;
+		public final Object controller;
+		private Scene scene;   // created the first time the view is shown as a whole window
+		private boolean used;  // shown at least once, so it needs a reset before the next visit
+
+		private View(Parent root, Object controller) {
+			this.root = root;
+			this.controller = controller;
+		}
+	}
+
+	// By FXML path, least recently used first
+	private static final Map<String, View> viewCache = new LinkedHashMap<>(8, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+			return size() > MAX_CACHED_VIEWS;
+		}
+	};
+
 	/**
 	 * Loads and displays a scene from an FXML file
 	 */
@@ -30,21 +65,104 @@ public class SceneManager {
 			e.printStackTrace();
 		}
 	}
-	
+
+	/**
+	 * Parses views ahead of their first use, so the first visit is as fast as later ones.
+	 * Must run on the JavaFX thread.
+	 */
+	public static void preload(String... fxmlPaths) {
+		for (String fxmlPath : fxmlPaths) {
+			try {
+				cachedView(fxmlPath);
+			} catch (IOException e) {
+				System.err.println("Could not preload " + fxmlPath + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Returns a view ready for a new visit: parsed on first use, afterwards the cached
+	 * view with its controller reset. The caller then passes the visit's data to the controller.
+	 */
+	public static View getView(String fxmlPath) throws IOException {
+		View view = cachedView(fxmlPath);
+		if (view.used && view.controller instanceof CachedView) {
+			((CachedView) view.controller).reset();
+		}
+		view.used = true;
+		return view;
+	}
+
+	/**
+	 * Forgets every cached view, e.g. on logout so no user's data stays in memory
+	 */
+	public static void clearCache() {
+		viewCache.clear();
+	}
+
+	private static View cachedView(String fxmlPath) throws IOException {
+		View view = viewCache.get(fxmlPath);
+		if (view == null) {
+			FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource(fxmlPath));
+			Parent root = loader.load();
+			view = new View(root, loader.getController());
+			// Views that cannot be reset would show the previous visit's state, so they are never reused
+			if (view.controller instanceof CachedView) {
+				viewCache.put(fxmlPath, view);
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * Makes a view the window's content, reusing its scene if it has been shown before
+	 */
+	private static void showView(View view) {
+		// A view embedded elsewhere (the dashboard shows the forum) is taken out first
+		if (view.root.getParent() instanceof Pane) {
+			((Pane) view.root.getParent()).getChildren().remove(view.root);
+		}
+		if (view.root instanceof Region) {
+			((Region) view.root).prefWidthProperty().unbind();
+			((Region) view.root).prefHeightProperty().unbind();
+		}
+		if (view.scene == null) {
+			view.scene = new Scene(view.root, 1400, 800);
+		} else if (view.scene.getRoot() != view.root) {
+			view.scene.setRoot(view.root);
+		}
+		Stage stage = Main.getPrimaryStage();
+		stage.setScene(view.scene);
+		stage.setResizable(true);
+		stage.centerOnScreen();
+		stage.show();
+	}
+
+	/**
+	 * Detaches a cached view from the scene it was shown in, so it can be embedded in another view
+	 */
+	public static void detach(View view) {
+		if (view.scene != null && view.scene.getRoot() == view.root) {
+			view.scene.setRoot(new Region());
+		}
+	}
+
 	/**
 	 * Switches to the Login view
 	 */
 	public static void switchToLogin() {
+		// Logging out: drop the previous user's views
+		clearCache();
 		loadScene("/edu/northeastern/uniforum/forum/view/LoginView.fxml", Main.getPrimaryStage(), 1400, 800);
 	}
-	
+
 	/**
 	 * Switches to the Registration view
 	 */
 	public static void switchToRegistration() {
 		loadScene("/edu/northeastern/uniforum/forum/view/RegistrationView.fxml", Main.getPrimaryStage(), 1400, 800);
 	}
-	
+
 	/**
 	 * Switches to the Dashboard view with user data
 	 */
@@ -57,7 +175,7 @@ public class SceneManager {
 			Main.getPrimaryStage().setResizable(true);
 			Main.getPrimaryStage().centerOnScreen();
 			Main.getPrimaryStage().show();
-			
+
 			// Initialize controller with user data
 			DashboardController controller = loader.getController();
 			if (controller != null) {
@@ -67,30 +185,27 @@ public class SceneManager {
 			e.printStackTrace();
 		}
 	}
-	
+
 	/**
 	 * Switches to the Forum view with user data
 	 */
 	public static void switchToForum(User user) {
 		try {
-			FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource("/edu/northeastern/uniforum/forum/view/forum.fxml"));
-			Parent root = loader.load();
-			Scene scene = new Scene(root, 1400, 800);
-			Main.getPrimaryStage().setScene(scene);
-			Main.getPrimaryStage().setResizable(true);
-			Main.getPrimaryStage().centerOnScreen();
-			Main.getPrimaryStage().show();
-			
+			long start = System.nanoTime();
+			View view = getView(FORUM_VIEW);
+			showView(view);
+
 			// Initialize controller with user data
-			ForumController controller = loader.getController();
+			ForumController controller = (ForumController) view.controller;
 			if (controller != null) {
 				controller.initData(user);
 			}
+			logSwitch("Forum", start);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
-	
+
 	/**
 	 * Switches to the Settings view with user data
 	 * @param user The user whose profile is being viewed
@@ -98,7 +213,7 @@ public class SceneManager {
 	public static void switchToSettings(User user) {
 		switchToSettings(user, user); // If no logged-in user specified, assume viewing own profile
 	}
-	
+
 	/**
 	 * Switches to the Settings view with both logged-in user and viewed user
 	 * @param loggedInUser The currently logged-in user
@@ -106,20 +221,17 @@ public class SceneManager {
 	 */
 	public static void switchToSettings(User loggedInUser, User viewedUser) {
 		try {
-			FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource("/edu/northeastern/uniforum/forum/view/SettingsView.fxml"));
-			Parent root = loader.load();
-			Scene scene = new Scene(root, 1400, 800);
-			Main.getPrimaryStage().setScene(scene);
-			Main.getPrimaryStage().setResizable(true);
-			Main.getPrimaryStage().centerOnScreen();
-			Main.getPrimaryStage().show();
-			
+			long start = System.nanoTime();
+			View view = getView(SETTINGS_VIEW);
+			showView(view);
+
 			// Initialize controller with user data
-			SettingsController controller = loader.getController();
+			SettingsController controller = (SettingsController) view.controller;
 			if (controller != null) {
 				controller.setLoggedInUser(loggedInUser);
 				controller.initData(viewedUser);
 			}
+			logSwitch("Settings", start);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -130,21 +242,22 @@ public class SceneManager {
 	 */
 	public static void switchToCourseSelection(User user) {
 		try {
-			FXMLLoader loader = new FXMLLoader(SceneManager.class.getResource("/edu/northeastern/uniforum/forum/view/CourseSelection.fxml"));
-			Parent root = loader.load();
-			Scene scene = new Scene(root, 1400, 800);
-			Main.getPrimaryStage().setScene(scene);
-			Main.getPrimaryStage().setResizable(true);
-			Main.getPrimaryStage().centerOnScreen();
-			Main.getPrimaryStage().show();
-			
+			long start = System.nanoTime();
+			View view = getView(COURSE_SELECTION_VIEW);
+			showView(view);
+
 			// Initialize controller with user data
-			edu.northeastern.uniforum.forum.controller.CourseSelectionController controller = loader.getController();
+			CourseSelectionController controller = (CourseSelectionController) view.controller;
 			if (controller != null) {
 				controller.setCurrentUser(user);
 			}
+			logSwitch("Course Selection", start);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
+
+	private static void logSwitch(String name, long start) {
+		System.out.printf("Switched to %s in %.1f ms%n", name, (System.nanoTime() - start) / 1_000_000.0);
+	}
 }
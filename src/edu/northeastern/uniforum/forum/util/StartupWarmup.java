@@ -0,0 +1,177 @@
+package edu.northeastern.uniforum.forum.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import edu.northeastern.uniforum.db.DBInitializer;
+import edu.northeastern.uniforum.forum.dao.QueryPlanVerifier;
+import edu.northeastern.uniforum.forum.search.SearchIndex;
+import edu.northeastern.uniforum.forum.search.Suggestions;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+/**
+ * Gets the application ready behind a splash screen. The work that would otherwise
+ * happen on first use runs up front as separate stages, concurrently where they do not
+ * depend on each other, and the time each stage took is logged when all have finished:
+ * <ul>
+ * <li>the SQLite driver and schema migrations, which every other database stage waits for</li>
+ * <li>the query plan check, the search index and the search suggestions</li>
+ * <li>BCrypt, so the first login is not slowed down by its code being compiled</li>
+ * <li>parsing the views shown after login, on the JavaFX thread</li>
+ * <li>last, once the others have finished and the CPU is idle, BCrypt's cost calibration</li>
+ * </ul>
+ * A stage that fails is logged and skipped; the application starts regardless.
+ */
+public class StartupWarmup {
+
+	private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+			Thread.ofVirtual().name("warmup-", 0).factory());
+
+	private static final int STAGE_COUNT = 7;
+
+	private final long start = System.nanoTime();
+	private final Stage splash = new Stage(StageStyle.UNDECORATED);
+	private final ProgressBar progressBar = new ProgressBar(0);
+	private final Label statusLabel = new Label("Starting...");
+
+	// Milliseconds by stage, in the order they finished; null for a skipped stage. JavaFX thread only.
+	private final Map<String, Long> timings = new LinkedHashMap<>();
+
+	private StartupWarmup() {
+	}
+
+	/**
+	 * Shows the splash screen and starts the warm-up. Must be called on the JavaFX thread.
+	 * @param onReady called on the JavaFX thread once every stage has finished, with whether the database is usable
+	 */
+	public static void run(Consumer<Boolean> onReady) {
+		new StartupWarmup().begin(onReady);
+	}
+
+	private void begin(Consumer<Boolean> onReady) {
+		showSplash();
+
+		CompletableFuture<Boolean> database = inBackground("Database", DBInitializer::initializeDatabase);
+		CompletableFuture<Void> bcrypt = inBackground("Password hashing", () -> {
+			PasswordUtil.warmUp();
+			return null;
+		});
+		CompletableFuture<Void> queryPlans = afterDatabase(database, "Query plans", () -> {
+			QueryPlanVerifier.verify();
+			return null;
+		});
+		CompletableFuture<Void> searchIndex = afterDatabase(database, "Search index", () -> {
+			SearchIndex.preload();
+			return null;
+		});
+		CompletableFuture<Void> suggestions = afterDatabase(database, "Search suggestions", () -> {
+			Suggestions.preload();
+			return null;
+		});
+		// The forum view loads its feed as soon as it is parsed, so it needs the schema as well
+		CompletableFuture<Void> views = database.thenCompose(ready -> Boolean.TRUE.equals(ready)
+				? onFxThread("Views", () -> {
+					SceneManager.preload(SceneManager.FORUM_VIEW, SceneManager.SETTINGS_VIEW);
+					return null;
+				})
+				: skipped("Views"));
+
+		// Timed hashes, so nothing may compete with them for the CPU
+		CompletableFuture<Void> passwordCost = CompletableFuture
+				.allOf(database, bcrypt, queryPlans, searchIndex, suggestions, views)
+				.handle((done, e) -> null)
+				.thenCompose(done -> inBackground("Password cost", () -> {
+					PasswordUtil.calibrate();
+					return null;
+				}));
+
+		passwordCost.whenComplete((done, e) -> Platform.runLater(() -> {
+			logTimings();
+			onReady.accept(Boolean.TRUE.equals(database.getNow(false)));
+			// Closed only after onReady has shown the main window, or the application would exit with its last window
+			splash.close();
+		}));
+	}
+
+	private void showSplash() {
+		Label title = new Label("UniForum");
+		title.setStyle("-fx-text-fill: #3D348B; -fx-font-size: 28; -fx-font-weight: bold;");
+		progressBar.setPrefWidth(280);
+		progressBar.setStyle("-fx-accent: #7678ED;");
+		statusLabel.setStyle("-fx-text-fill: #888888; -fx-font-size: 12;");
+
+		VBox content = new VBox(16, title, progressBar, statusLabel);
+		content.setAlignment(Pos.CENTER);
+		content.setStyle("-fx-background-color: white; -fx-padding: 30; -fx-border-color: #7678ED; -fx-border-width: 1;");
+
+		splash.setScene(new Scene(content, 380, 200));
+		splash.setTitle("UniForum");
+		splash.centerOnScreen();
+		splash.show();
+	}
+
+	private <T> CompletableFuture<T> inBackground(String stage, DataService.DataCall<T> call) {
+		return CompletableFuture.supplyAsync(() -> timed(stage, call), EXECUTOR);
+	}
+
+	private <T> CompletableFuture<T> onFxThread(String stage, DataService.DataCall<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Platform.runLater(() -> result.complete(timed(stage, call)));
+		return result;
+	}
+
+	private <T> CompletableFuture<T> afterDatabase(CompletableFuture<Boolean> database, String stage,
+			DataService.DataCall<T> call) {
+		return database.thenCompose(ready -> Boolean.TRUE.equals(ready) ? inBackground(stage, call) : skipped(stage));
+	}
+
+	private <T> CompletableFuture<T> skipped(String stage) {
+		Platform.runLater(() -> stageFinished(stage, null));
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Runs one stage, timing it
+	 * @return what the stage returned, or null if it failed
+	 */
+	private <T> T timed(String stage, DataService.DataCall<T> call) {
+		long stageStart = System.nanoTime();
+		T value = null;
+		try {
+			value = call.call();
+		} catch (Exception e) {
+			System.err.println("Warm-up stage '" + stage + "' failed: " + e.getMessage());
+		}
+		long millis = (System.nanoTime() - stageStart) / 1_000_000;
+		Platform.runLater(() -> stageFinished(stage, millis));
+		return value;
+	}
+
+	private void stageFinished(String stage, Long millis) {
+		timings.put(stage, millis);
+		progressBar.setProgress((double) timings.size() / STAGE_COUNT);
+		statusLabel.setText(millis == null ? stage + " skipped" : stage + " ready (" + millis + " ms)");
+	}
+
+	private void logTimings() {
+		StringBuilder line = new StringBuilder("Startup warm-up finished in ")
+				.append((System.nanoTime() - start) / 1_000_000).append(" ms:");
+		for (Map.Entry<String, Long> entry : timings.entrySet()) {
+			line.append(' ').append(entry.getKey()).append(' ')
+					.append(entry.getValue() == null ? "skipped" : entry.getValue() + " ms").append(',');
+		}
+		line.setLength(line.length() - 1);
+		System.out.println(line);
+	}
+}